@@ -0,0 +1,80 @@
+package com.doc_app.booking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "slots.cache")
+public class AvailabilityCacheProperties {
+
+    /**
+     * Whether getAvailableSlots results are cached per doctor and date. Default
+     * true.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of cached doctor-days; the least recently used entry is
+     * evicted beyond this. Default 10000.
+     */
+    private int maxEntries = 10000;
+
+    /**
+     * Seconds a cached doctor-day is served before it is reloaded, as a safety
+     * net for changes that raise no event. Default 60.
+     */
+    private long ttlSeconds = 60;
+
+    /**
+     * Seconds a doctor's "today" dashboard counters are reused between polls.
+     * Zero disables the counters cache. Default 5.
+     */
+    private long countersTtlSeconds = 5;
+
+    /**
+     * Whether availability of the booking horizon (today plus
+     * slots.generator.days-ahead) is served from the in-memory availability
+     * index instead of the database. MATERIALIZED mode only. Default false.
+     */
+    private boolean indexEnabled = false;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(long ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public boolean isIndexEnabled() {
+        return indexEnabled;
+    }
+
+    public void setIndexEnabled(boolean indexEnabled) {
+        this.indexEnabled = indexEnabled;
+    }
+
+    public long getCountersTtlSeconds() {
+        return countersTtlSeconds;
+    }
+
+    public void setCountersTtlSeconds(long countersTtlSeconds) {
+        this.countersTtlSeconds = countersTtlSeconds;
+    }
+}
@@ -0,0 +1,154 @@
+package com.doc_app.booking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of the booking contention benchmark, which only runs under the
+ * {@code bench} profile.
+ */
+@Component
+@ConfigurationProperties(prefix = "booking.bench")
+public class BookingBenchProperties {
+
+    /**
+     * JDBC URL of the database the benchmark runs against; required, the
+     * {@code bench} profile points spring.datasource.url at it so the
+     * benchmark never writes to the application's database by accident.
+     */
+    private String datasourceUrl;
+
+    /**
+     * Clients per round, each booking once. Default 500.
+     */
+    private int clients = 500;
+
+    /**
+     * Threads the clients run on, which is also the connection pool size
+     * (plus one for the lock-wait sampler). Default 50.
+     */
+    private int threads = 50;
+
+    /**
+     * Slots the clients compete for; client i books slot i % slots. Default 20.
+     */
+    private int slots = 20;
+
+    /**
+     * Booking strategies to compare, run one after the other. Default both.
+     */
+    private List<BookingProperties.Strategy> strategies = new ArrayList<>(
+            List.of(BookingProperties.Strategy.PESSIMISTIC, BookingProperties.Strategy.OPTIMISTIC));
+
+    /**
+     * Unreported rounds per strategy to warm up the JIT and the connection pool.
+     * Default 1.
+     */
+    private int warmupRounds = 1;
+
+    /**
+     * Reported rounds per strategy. Default 3.
+     */
+    private int rounds = 3;
+
+    /**
+     * How far ahead the benchmark day lies, away from real bookings and the
+     * generator horizon. Default 60.
+     */
+    private int daysAhead = 60;
+
+    /**
+     * Interval at which sessions waiting on a lock are counted. Default 5 ms.
+     */
+    private long lockSampleMillis = 5;
+
+    /**
+     * Whether the application context is closed after the benchmark, so the
+     * process ends. A round that broke the one-winner-per-slot invariant fails
+     * startup instead, which ends it with a non-zero status. Default true.
+     */
+    private boolean closeWhenDone = true;
+
+    public String getDatasourceUrl() {
+        return datasourceUrl;
+    }
+
+    public void setDatasourceUrl(String datasourceUrl) {
+        this.datasourceUrl = datasourceUrl;
+    }
+
+    public int getClients() {
+        return clients;
+    }
+
+    public void setClients(int clients) {
+        this.clients = clients;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getSlots() {
+        return slots;
+    }
+
+    public void setSlots(int slots) {
+        this.slots = slots;
+    }
+
+    public List<BookingProperties.Strategy> getStrategies() {
+        return strategies;
+    }
+
+    public void setStrategies(List<BookingProperties.Strategy> strategies) {
+        this.strategies = strategies;
+    }
+
+    public int getWarmupRounds() {
+        return warmupRounds;
+    }
+
+    public void setWarmupRounds(int warmupRounds) {
+        this.warmupRounds = warmupRounds;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public void setRounds(int rounds) {
+        this.rounds = rounds;
+    }
+
+    public int getDaysAhead() {
+        return daysAhead;
+    }
+
+    public void setDaysAhead(int daysAhead) {
+        this.daysAhead = daysAhead;
+    }
+
+    public long getLockSampleMillis() {
+        return lockSampleMillis;
+    }
+
+    public void setLockSampleMillis(long lockSampleMillis) {
+        this.lockSampleMillis = lockSampleMillis;
+    }
+
+    public boolean isCloseWhenDone() {
+        return closeWhenDone;
+    }
+
+    public void setCloseWhenDone(boolean closeWhenDone) {
+        this.closeWhenDone = closeWhenDone;
+    }
+}
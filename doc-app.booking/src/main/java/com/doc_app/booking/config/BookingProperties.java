@@ -0,0 +1,132 @@
+package com.doc_app.booking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "booking")
+public class BookingProperties {
+
+    /**
+     * How a slot is claimed when an appointment is booked. PESSIMISTIC locks the
+     * slot row (SELECT ... FOR UPDATE) before building the appointment;
+     * OPTIMISTIC inserts the appointment first and claims the slot with one
+     * conditional UPDATE, so the row lock is only held from that statement to
+     * commit.
+     */
+    public enum Strategy {
+        PESSIMISTIC,
+        OPTIMISTIC
+    }
+
+    /**
+     * Slot claiming strategy for bookings. Default PESSIMISTIC.
+     */
+    private Strategy strategy = Strategy.PESSIMISTIC;
+
+    /**
+     * How long a slot hold lasts when the client does not ask for a duration.
+     * Default 10 minutes.
+     */
+    private int holdMinutes = 10;
+
+    /**
+     * Longest hold a client may ask for. Default 30 minutes.
+     */
+    private int maxHoldMinutes = 30;
+
+    /**
+     * Cron expression for releasing expired holds. Default: every minute.
+     */
+    private String holdSweepCron = "0 * * * * *";
+
+    /**
+     * Expired holds released per transaction. Default 500.
+     */
+    private int holdSweepBatchSize = 500;
+
+    /**
+     * How long the response to a request with an Idempotency-Key is replayed
+     * to retries. Default 60 minutes.
+     */
+    private int idempotencyTtlMinutes = 60;
+
+    /**
+     * Most remembered responses; the oldest are dropped first. Default 10000.
+     */
+    private int idempotencyMaxEntries = 10_000;
+
+    /**
+     * How long a retry waits for the original request with the same
+     * Idempotency-Key before it is answered with 409. Default 30 seconds.
+     */
+    private int idempotencyWaitSeconds = 30;
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public int getHoldMinutes() {
+        return holdMinutes;
+    }
+
+    public void setHoldMinutes(int holdMinutes) {
+        this.holdMinutes = holdMinutes;
+    }
+
+    public int getMaxHoldMinutes() {
+        return maxHoldMinutes;
+    }
+
+    public void setMaxHoldMinutes(int maxHoldMinutes) {
+        this.maxHoldMinutes = maxHoldMinutes;
+    }
+
+    public String getHoldSweepCron() {
+        return holdSweepCron;
+    }
+
+    public void setHoldSweepCron(String holdSweepCron) {
+        this.holdSweepCron = holdSweepCron;
+    }
+
+    public int getHoldSweepBatchSize() {
+        return holdSweepBatchSize;
+    }
+
+    public void setHoldSweepBatchSize(int holdSweepBatchSize) {
+        this.holdSweepBatchSize = holdSweepBatchSize;
+    }
+
+    public int getIdempotencyTtlMinutes() {
+        return idempotencyTtlMinutes;
+    }
+
+    public void setIdempotencyTtlMinutes(int idempotencyTtlMinutes) {
+        this.idempotencyTtlMinutes = idempotencyTtlMinutes;
+    }
+
+    public int getIdempotencyMaxEntries() {
+        return idempotencyMaxEntries;
+    }
+
+    public void setIdempotencyMaxEntries(int idempotencyMaxEntries) {
+        this.idempotencyMaxEntries = idempotencyMaxEntries;
+    }
+
+    public int getIdempotencyWaitSeconds() {
+        return idempotencyWaitSeconds;
+    }
+
+    public void setIdempotencyWaitSeconds(int idempotencyWaitSeconds) {
+        this.idempotencyWaitSeconds = idempotencyWaitSeconds;
+    }
+
+    public boolean isOptimistic() {
+        return strategy == Strategy.OPTIMISTIC;
+    }
+}
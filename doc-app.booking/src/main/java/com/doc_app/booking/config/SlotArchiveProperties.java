@@ -0,0 +1,63 @@
+package com.doc_app.booking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "slots.archive")
+public class SlotArchiveProperties {
+
+    /**
+     * Whether past slots are moved to the slot_archive table. Default true.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Slots dated more than this many days before today are archived. Keeps
+     * recent days in the hot table for completing and reviewing appointments.
+     * Default 7.
+     */
+    private int retentionDays = 7;
+
+    /**
+     * Cron expression for the archiver. Default: every day at 03:30 AM.
+     */
+    private String cron = "0 30 3 * * *";
+
+    /**
+     * Slots moved per transaction. Default 1000.
+     */
+    private int batchSize = 1000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getRetentionDays() {
+        return retentionDays;
+    }
+
+    public void setRetentionDays(int retentionDays) {
+        this.retentionDays = retentionDays;
+    }
+
+    public String getCron() {
+        return cron;
+    }
+
+    public void setCron(String cron) {
+        this.cron = cron;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+}
@@ -6,6 +6,22 @@ import org.springframework.stereotype.Component;
 @Component
 @ConfigurationProperties(prefix = "slots.generator")
 public class SlotsGeneratorProperties {
+
+    /**
+     * How availability is produced. MATERIALIZED stores a row per slot ahead of
+     * time (nightly generator); VIRTUAL computes slots from templates on read and
+     * only stores a row when a slot is booked.
+     */
+    public enum Mode {
+        MATERIALIZED,
+        VIRTUAL
+    }
+
+    /**
+     * Availability mode for this deployment. Default MATERIALIZED.
+     */
+    private Mode mode = Mode.MATERIALIZED;
+
     /**
      * How many days ahead to generate slots for each doctor. Default 7.
      */
@@ -16,6 +32,42 @@ public class SlotsGeneratorProperties {
      */
     private String cron = "0 0 2 * * *";
 
+    /**
+     * Cron expression for the slot status reconciler that repairs slot statuses
+     * drifted from their appointments. Default: every 15 minutes.
+     */
+    private String reconcileCron = "0 */15 * * * *";
+
+    /**
+     * Number of slot rows sent per JDBC batch during bulk generation. Default 1000.
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Number of doctors per generation partition. Each partition runs in its own
+     * transaction and fails independently. Zero or less means a single partition.
+     * Default 500.
+     */
+    private int partitionSize = 500;
+
+    /**
+     * Number of partitions generated concurrently. Each worker holds one DB
+     * connection, so keep this below the connection pool size. Default 1.
+     */
+    private int parallelism = 1;
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public boolean isVirtual() {
+        return mode == Mode.VIRTUAL;
+    }
+
     public int getDaysAhead() {
         return daysAhead;
     }
@@ -31,4 +83,36 @@ public class SlotsGeneratorProperties {
     public void setCron(String cron) {
         this.cron = cron;
     }
+
+    public String getReconcileCron() {
+        return reconcileCron;
+    }
+
+    public void setReconcileCron(String reconcileCron) {
+        this.reconcileCron = reconcileCron;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getPartitionSize() {
+        return partitionSize;
+    }
+
+    public void setPartitionSize(int partitionSize) {
+        this.partitionSize = partitionSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
 }
@@ -2,12 +2,16 @@ package com.doc_app.booking.controller;
 
 import com.doc_app.booking.dto.AppointmentDTO;
 import com.doc_app.booking.dto.ApiResponse;
+import com.doc_app.booking.dto.DoctorDayCountersDTO;
 import com.doc_app.booking.dto.PageResponse;
+import com.doc_app.booking.dto.request.BatchAppointmentRequest;
 import com.doc_app.booking.dto.request.CreateAppointmentRequest;
 import com.doc_app.booking.dto.request.UpdateAppointmentRequest;
 import com.doc_app.booking.dto.request.AppointmentStatusUpdateRequest;
 import com.doc_app.booking.model.AppointmentStatus;
 import com.doc_app.booking.service.AppointmentService;
+import com.doc_app.booking.service.DoctorCountersService;
+import com.doc_app.booking.service.idempotency.IdempotencyStore;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -53,7 +57,24 @@ public class AppointmentController {
         return ResponseEntity.ok(ApiResponse.success(count));
     }
 
+    @Operation(summary = "Get today's free slot and per-status appointment counters for a doctor")
+    @GetMapping("/doctor/{doctorId}/today/counters")
+    @PreAuthorize("hasRole('DOCTOR') or hasRole('HOSPITAL_ADMIN')")
+    public ResponseEntity<ApiResponse<DoctorDayCountersDTO>> getTodaysCountersByDoctor(
+            @Parameter(description = "ID of the doctor", required = true) @PathVariable Long doctorId,
+            HttpServletRequest httpRequest) {
+        Long userId = (Long) httpRequest.getAttribute("userId");
+        String userRole = (String) httpRequest.getAttribute("userRole");
+        if ("DOCTOR".equals(userRole) && !userId.equals(doctorId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("You can only view your own appointments"));
+        }
+        return ResponseEntity.ok(ApiResponse.success(doctorCountersService.getTodayCounters(doctorId)));
+    }
+
     private final AppointmentService appointmentService;
+    private final DoctorCountersService doctorCountersService;
+    private final IdempotencyStore idempotencyStore;
 
     @Operation(summary = "Create appointment - Patients can book for themselves, Hospital Admins can book for any patient")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "201", description = "Created", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = AppointmentDTO.class)))
@@ -61,6 +82,7 @@ public class AppointmentController {
     @PreAuthorize("hasRole('PATIENT') or hasRole('HOSPITAL_ADMIN') or hasRole('SUPERADMIN')")
     public ResponseEntity<ApiResponse<AppointmentDTO>> createAppointment(
             @Valid @RequestBody CreateAppointmentRequest request,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
             HttpServletRequest httpRequest) {
 
         // Get user details from JWT filter
@@ -74,9 +96,11 @@ public class AppointmentController {
             }
         }
 
-        AppointmentDTO appointmentDTO = appointmentService.createAppointment(request);
-        return new ResponseEntity<>(ApiResponse.success("Appointment created successfully", appointmentDTO),
-                HttpStatus.CREATED);
+        return idempotencyStore.execute(httpRequest, idempotencyKey, request, () -> {
+            AppointmentDTO appointmentDTO = appointmentService.createAppointment(request);
+            return new ResponseEntity<>(ApiResponse.success("Appointment created successfully", appointmentDTO),
+                    HttpStatus.CREATED);
+        });
     }
 
     @Operation(summary = "Create appointment by slot - Patients can book for themselves, Hospital Admins can book for any patient")
@@ -85,6 +109,7 @@ public class AppointmentController {
     public ResponseEntity<ApiResponse<AppointmentDTO>> createAppointmentBySlot(
             @PathVariable Long slotId,
             @Valid @RequestBody CreateAppointmentRequest request,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
             HttpServletRequest httpRequest) {
 
         // Get user details from JWT filter
@@ -106,9 +131,95 @@ public class AppointmentController {
 
         // Ensure slotId is set
         request.setSlotId(slotId);
-        AppointmentDTO appointmentDTO = appointmentService.createAppointment(request);
-        return new ResponseEntity<>(ApiResponse.success("Appointment created successfully via slot", appointmentDTO),
-                HttpStatus.CREATED);
+        return idempotencyStore.execute(httpRequest, idempotencyKey, request, () -> {
+            AppointmentDTO appointmentDTO = appointmentService.createAppointment(request);
+            return new ResponseEntity<>(ApiResponse.success("Appointment created successfully via slot",
+                    appointmentDTO), HttpStatus.CREATED);
+        });
+    }
+
+    @Operation(summary = "Book several slots of one doctor at once - all appointments are created or none")
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('PATIENT') or hasRole('HOSPITAL_ADMIN') or hasRole('SUPERADMIN')")
+    public ResponseEntity<ApiResponse<List<AppointmentDTO>>> createAppointments(
+            @Valid @RequestBody BatchAppointmentRequest request,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest httpRequest) {
+
+        // If patient, ensure they can only book for themselves and not reserve
+        String userRole = (String) httpRequest.getAttribute("userRole");
+        if ("PATIENT".equals(userRole)) {
+            if (request.isReserved()) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(ApiResponse.error("Patients cannot create reserved appointments"));
+            }
+            String patientPhone = (String) httpRequest.getAttribute("phoneNumber");
+            if (patientPhone == null || !patientPhone.equals(request.getPatientPhone())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(ApiResponse.error("You can only book appointments for your own phone number"));
+            }
+        }
+
+        return idempotencyStore.execute(httpRequest, idempotencyKey, request, () -> {
+            List<AppointmentDTO> appointments = appointmentService.createAppointments(request);
+            return new ResponseEntity<>(ApiResponse.success("Appointments created successfully", appointments),
+                    HttpStatus.CREATED);
+        });
+    }
+
+    @Operation(summary = "Hold a slot for a few minutes - confirm the hold to book it, otherwise it is released")
+    @PostMapping("/slot/{slotId}/hold")
+    @PreAuthorize("hasRole('PATIENT') or hasRole('HOSPITAL_ADMIN')")
+    public ResponseEntity<ApiResponse<AppointmentDTO>> holdSlot(
+            @PathVariable Long slotId,
+            @RequestParam(required = false) Integer minutes,
+            @Valid @RequestBody CreateAppointmentRequest request,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest httpRequest) {
+
+        String userRole = (String) httpRequest.getAttribute("userRole");
+        if ("PATIENT".equals(userRole)) {
+            String patientPhone = (String) httpRequest.getAttribute("phoneNumber");
+            if (patientPhone == null || !patientPhone.equals(request.getPatientPhone())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(ApiResponse.error("You can only hold slots for your own phone number"));
+            }
+        }
+
+        request.setSlotId(slotId);
+        return idempotencyStore.execute(httpRequest, idempotencyKey, new HoldBody(request, minutes), () -> {
+            AppointmentDTO appointmentDTO = appointmentService.holdSlot(request, minutes);
+            return new ResponseEntity<>(ApiResponse.success("Slot held until " + appointmentDTO.getHoldExpiresAt(),
+                    appointmentDTO), HttpStatus.CREATED);
+        });
+    }
+
+    @Operation(summary = "Confirm a slot hold - turns an unexpired hold into a scheduled appointment")
+    @PostMapping("/{id}/confirm")
+    @PreAuthorize("hasRole('PATIENT') or hasRole('HOSPITAL_ADMIN')")
+    public ResponseEntity<ApiResponse<AppointmentDTO>> confirmHold(
+            @PathVariable Long id,
+            @RequestParam(required = false) String patientPhone,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest httpRequest) {
+
+        // patients confirm only holds they placed themselves, for themselves
+        Long userId = (Long) httpRequest.getAttribute("userId");
+        String userRole = (String) httpRequest.getAttribute("userRole");
+        String confirmingPhone = patientPhone;
+        if ("PATIENT".equals(userRole)) {
+            confirmingPhone = (String) httpRequest.getAttribute("phoneNumber");
+            AppointmentDTO hold = appointmentService.getAppointmentById(id);
+            if (confirmingPhone == null || userId == null || !userId.equals(hold.getPatientId())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(ApiResponse.error("You can only confirm your own holds"));
+            }
+        }
+        String phone = confirmingPhone;
+        return idempotencyStore.execute(httpRequest, idempotencyKey, phone, () -> {
+            AppointmentDTO appointmentDTO = appointmentService.confirmHold(id, phone);
+            return ResponseEntity.ok(ApiResponse.success("Appointment confirmed successfully", appointmentDTO));
+        });
     }
 
     @Operation(summary = "Update an appointment - Hospital Admins and Doctors can update appointments")
@@ -331,4 +442,8 @@ public class AppointmentController {
         boolean isAvailable = appointmentService.isDoctorAvailable(doctorId, dateTime);
         return ResponseEntity.ok(ApiResponse.success(isAvailable));
     }
+
+    // minutes is a query parameter, so it joins the body in the idempotency fingerprint
+    private record HoldBody(CreateAppointmentRequest request, Integer minutes) {
+    }
 }
\ No newline at end of file
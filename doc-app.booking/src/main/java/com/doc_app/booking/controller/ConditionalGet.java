@@ -0,0 +1,29 @@
+package com.doc_app.booking.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * ETag handling shared by the polled GET endpoints.
+ */
+final class ConditionalGet {
+
+    // let clients keep the response but revalidate every time; Spring Security's default no-store
+    // would otherwise stop browsers from ever sending If-None-Match
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Sets the ETag and cache headers and returns true when the client's copy
+     * is current; the handler should then return null to send 304.
+     */
+    static boolean notModified(ServletWebRequest request, String etag) {
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        }
+        return request.checkNotModified(etag);
+    }
+}
@@ -9,6 +9,7 @@ import com.doc_app.booking.dto.response.AuthResponse;
 import com.doc_app.booking.service.DoctorService;
 import com.doc_app.booking.service.OTPService;
 import com.doc_app.booking.service.SlotTemplateService;
+import com.doc_app.booking.service.version.ResourceVersions;
 import com.doc_app.booking.security.JwtUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -26,6 +27,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 import java.util.ArrayList;
@@ -42,6 +44,7 @@ public class DoctorController {
     private final OTPService otpService;
     private final JwtUtil jwtUtil;
     private final SlotTemplateService slotTemplateService;
+    private final ResourceVersions resourceVersions;
 
     @PostMapping("/signup/send-otp")
     @Operation(summary = "Send OTP for doctor registration")
@@ -155,7 +158,12 @@ public class DoctorController {
     @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Doctor not found")
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<DoctorDTO>> getDoctor(
-            @Parameter(description = "ID of the doctor to retrieve", required = true) @PathVariable Long id) {
+            @Parameter(description = "ID of the doctor to retrieve", required = true) @PathVariable Long id,
+            ServletWebRequest webRequest) {
+        // unchanged profile: 304 without touching the database
+        if (ConditionalGet.notModified(webRequest, resourceVersions.profileETag(id))) {
+            return null;
+        }
         DoctorDTO doctorDTO = doctorService.getDoctorById(id);
         return ResponseEntity.ok(ApiResponse.success(doctorDTO));
     }
@@ -247,8 +255,13 @@ public class DoctorController {
     @Operation(summary = "Get slot templates for a doctor", description = "Retrieves all slot templates for the specified doctor")
     @GetMapping("/{doctorId}/slot-templates")
     public ResponseEntity<ApiResponse<List<com.doc_app.booking.dto.SlotTemplateDTO>>> getDoctorSlotTemplates(
-            @Parameter(description = "ID of the doctor", required = true) @PathVariable Long doctorId) {
+            @Parameter(description = "ID of the doctor", required = true) @PathVariable Long doctorId,
+            ServletWebRequest webRequest) {
 
+        // template changes publish availability events, which move this version
+        if (ConditionalGet.notModified(webRequest, resourceVersions.availabilityETag(doctorId, false))) {
+            return null;
+        }
         List<com.doc_app.booking.dto.SlotTemplateDTO> templates = slotTemplateService.getSlotTemplateByDoctor(doctorId);
         return ResponseEntity.ok(ApiResponse.success("Slot templates retrieved successfully", templates));
     }
@@ -1,15 +1,20 @@
 package com.doc_app.booking.controller;
 
+import com.doc_app.booking.dto.request.DoctorLeaveRangeRequest;
 import com.doc_app.booking.dto.request.DoctorLeaveRequest;
 import com.doc_app.booking.dto.response.DoctorLeaveResponse;
-import com.doc_app.booking.model.DoctorLeave;
 import com.doc_app.booking.service.DoctorLeaveService;
-import com.doc_app.booking.service.scheduler.DailySlotGenerator;
+import com.doc_app.booking.dto.ApiResponse;
+import com.doc_app.booking.dto.SlotGenerationJobDTO;
+import com.doc_app.booking.service.scheduler.SlotGenerationJobService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -18,15 +23,22 @@ import java.util.List;
 public class DoctorLeaveController {
 
     private final DoctorLeaveService leaveService;
-    private final DailySlotGenerator generator;
+    private final SlotGenerationJobService generationJobService;
 
     @PostMapping
     public ResponseEntity<DoctorLeaveResponse> create(
             @org.springframework.web.bind.annotation.RequestBody @jakarta.validation.Valid DoctorLeaveRequest req) {
-        DoctorLeave created = leaveService.createLeave(req.getDoctorId(), req.getDate(), req.getReason());
-        DoctorLeaveResponse resp = new DoctorLeaveResponse(created.getId(), created.getDoctor().getId(),
-                created.getDate(), created.getReason());
-        return ResponseEntity.created(URI.create("/api/v1/doctor-leaves/" + created.getId())).body(resp);
+        DoctorLeaveResponse resp = leaveService.createLeave(req.getDoctorId(), req.getDate(), req.getReason());
+        return ResponseEntity.created(URI.create("/api/v1/doctor-leaves/" + resp.getId())).body(resp);
+    }
+
+    // Multi-day leave: one leave row per day, slots blocked in a single update
+    @PostMapping("/range")
+    public ResponseEntity<List<DoctorLeaveResponse>> createRange(
+            @org.springframework.web.bind.annotation.RequestBody @jakarta.validation.Valid DoctorLeaveRangeRequest req) {
+        List<DoctorLeaveResponse> resp = leaveService.createLeaves(req.getDoctorId(), req.getStartDate(),
+                req.getEndDate(), req.getReason());
+        return ResponseEntity.ok(resp);
     }
 
     @GetMapping("/doctor/{doctorId}")
@@ -44,11 +56,22 @@ public class DoctorLeaveController {
         return ResponseEntity.noContent().build();
     }
 
+    @DeleteMapping("/doctor/{doctorId}")
+    public ResponseEntity<Void> deleteRange(@PathVariable Long doctorId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        leaveService.deleteLeaves(doctorId, startDate, endDate);
+        return ResponseEntity.noContent().build();
+    }
+
     // Manual trigger: run the daily generator on demand (useful for
-    // testing/backfill)
+    // testing/backfill). Poll /api/v1/slots/generation-jobs/{id} for progress.
     @PostMapping("/generate-now")
-    public ResponseEntity<String> triggerGenerationNow() {
-        generator.generateDailyAsync();
-        return ResponseEntity.ok("Generator triggered");
+    @PreAuthorize("hasRole('HOSPITAL_ADMIN')")
+    public ResponseEntity<ApiResponse<SlotGenerationJobDTO>> triggerGenerationNow() {
+        var job = generationJobService.submitDaily();
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/slots/generation-jobs/" + job.getId()))
+                .body(ApiResponse.success("Generator triggered", job.toDTO()));
     }
 }
@@ -1,19 +1,34 @@
 package com.doc_app.booking.controller;
 
+import com.doc_app.booking.dto.DayAvailabilityDTO;
+import com.doc_app.booking.dto.EarliestSlotDTO;
 import com.doc_app.booking.dto.SlotDTO;
-import com.doc_app.booking.model.Doctor;
-import com.doc_app.booking.repository.DoctorRepository;
+import com.doc_app.booking.dto.SlotHistoryPageDTO;
+import com.doc_app.booking.exception.BusinessException;
 import com.doc_app.booking.dto.ApiResponse;
+import com.doc_app.booking.service.SlotSearchService;
 import com.doc_app.booking.service.SlotService;
+import com.doc_app.booking.dto.SlotGenerationJobDTO;
+import com.doc_app.booking.service.scheduler.SlotGenerationJob;
+import com.doc_app.booking.service.scheduler.SlotGenerationJobService;
+import com.doc_app.booking.service.slot.AvailabilityCache;
+import com.doc_app.booking.service.slot.AvailabilityIndex;
+import com.doc_app.booking.service.slot.SlotGenerationCoalescer;
+import com.doc_app.booking.service.version.ResourceVersions;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.net.URI;
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -23,10 +38,20 @@ import java.util.List;
 public class SlotController {
 
     private final SlotService slotService;
-    private final DoctorRepository doctorRepository;
+    private final SlotSearchService slotSearchService;
+    private final SlotGenerationCoalescer generationCoalescer;
+    private final SlotGenerationJobService generationJobService;
+    private final AvailabilityCache availabilityCache;
+    private final AvailabilityIndex availabilityIndex;
+    private final ResourceVersions resourceVersions;
 
     @GetMapping("/doctor/{doctorId}/today/free-count")
-    public ResponseEntity<ApiResponse<Long>> getFreeSlotsCountToday(@PathVariable Long doctorId) {
+    public ResponseEntity<ApiResponse<Long>> getFreeSlotsCountToday(@PathVariable Long doctorId,
+            ServletWebRequest webRequest) {
+        // unchanged since the client's copy: 304 without touching the database
+        if (ConditionalGet.notModified(webRequest, resourceVersions.slotsETag(doctorId, LocalDate.now()))) {
+            return null;
+        }
         long count = slotService.countFreeSlotsToday(doctorId);
         return ResponseEntity.ok(ApiResponse.success(count));
     }
@@ -34,66 +59,119 @@ public class SlotController {
     @GetMapping("/doctor/{doctorId}")
     public ResponseEntity<ApiResponse<List<SlotDTO>>> getSlotsByDoctorAndDate(
             @PathVariable Long doctorId,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        List<SlotDTO> slots;
-        if (date != null) {
-            slots = slotService.getAvailableSlots(doctorId, date);
-        } else {
-            slots = slotService.getAllSlots(doctorId);
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            ServletWebRequest webRequest) {
+        if (ConditionalGet.notModified(webRequest, resourceVersions.slotsETag(doctorId, date))) {
+            return null;
+        }
+        // past slots are excluded and the result is ordered by date and start time by the service
+        List<SlotDTO> slots = date != null
+                ? slotService.getUpcomingSlots(doctorId, date)
+                : slotService.getUpcomingSlots(doctorId);
+        return ResponseEntity.ok(ApiResponse.success(slots));
+    }
+
+    /**
+     * Per-day free/total slot counts and first free time for the next
+     * {@code days} days (max 60), starting at {@code from} (default today).
+     */
+    @GetMapping("/doctor/{doctorId}/summary")
+    public ResponseEntity<ApiResponse<List<DayAvailabilityDTO>>> getAvailabilitySummary(
+            @PathVariable Long doctorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(defaultValue = "7") int days,
+            ServletWebRequest webRequest) {
+        if (days < 1 || days > 60) {
+            throw new BusinessException("days must be between 1 and 60");
         }
-       
-        // Remove past slots (end time before now)
-        var now = java.time.LocalDateTime.now();
-        var filtered = new ArrayList<SlotDTO>();
-        for (SlotDTO slot : slots) {
-            if (slot.getEnd() != null && slot.getEnd().isAfter(now)) {
-                filtered.add(slot);
-            }
+        if (ConditionalGet.notModified(webRequest, resourceVersions.availabilityETag(doctorId, true))) {
+            return null;
         }
-        // Order slots by AM/PM, then by start time
-        filtered.sort((a, b) -> {
-            int aHour = a.getStart() != null ? a.getStart().getHour() : 0;
-            int bHour = b.getStart() != null ? b.getStart().getHour() : 0;
-            boolean aIsAM = aHour < 12;
-            boolean bIsAM = bHour < 12;
-            if (aIsAM != bIsAM) {
-                return aIsAM ? -1 : 1; // AM first, then PM
-            }
-            // If both are AM or both are PM, sort by start time
-            return a.getStart().compareTo(b.getStart());
-        });
-        return ResponseEntity.ok(ApiResponse.success(filtered));
+        var summary = slotService.getAvailabilitySummary(doctorId, from == null ? LocalDate.now() : from, days);
+        return ResponseEntity.ok(ApiResponse.success(summary));
     }
 
+    @Operation(summary = "Earliest free slot per doctor, filtered by specialization, hospital or distance")
+    @GetMapping("/search/earliest")
+    public ResponseEntity<ApiResponse<List<EarliestSlotDTO>>> searchEarliestAvailable(
+            @RequestParam(required = false) String specialization,
+            @RequestParam(required = false) Long hospitalId,
+            @RequestParam(required = false) Double latitude,
+            @RequestParam(required = false) Double longitude,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(defaultValue = "20") int limit) {
+        var criteria = new SlotSearchService.Criteria(specialization, hospitalId, latitude, longitude, radiusKm,
+                from, days, limit);
+        return ResponseEntity.ok(ApiResponse.success(slotSearchService.findEarliestAvailable(criteria)));
+    }
+
+    /**
+     * Keyset-paginated slot history, archived slots included. Defaults to 30
+     * days either side of today; pass the returned {@code nextCursor} as
+     * {@code after} for the next page.
+     */
     @GetMapping("/doctor/{doctorId}/all")
-    public ResponseEntity<ApiResponse<List<SlotDTO>>> getAllSlotsByDoctor(@PathVariable Long doctorId) {
-        var slots = slotService.getAllSlots(doctorId);
-        return ResponseEntity.ok(ApiResponse.success(slots));
+    public ResponseEntity<ApiResponse<SlotHistoryPageDTO>> getAllSlotsByDoctor(
+            @PathVariable Long doctorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime after,
+            @RequestParam(defaultValue = "100") int size,
+            ServletWebRequest webRequest) {
+        if (ConditionalGet.notModified(webRequest, resourceVersions.availabilityETag(doctorId, false))) {
+            return null;
+        }
+        LocalDate start = from != null ? from : LocalDate.now().minusDays(30);
+        LocalDate end = to != null ? to : LocalDate.now().plusDays(30);
+        return ResponseEntity.ok(ApiResponse.success(slotService.getSlotHistory(doctorId, start, end, after, size)));
     }
 
+    // Kept for existing callers: queues a one-day generation job instead of generating inline
     @PostMapping("/generate-slots")
-    public ResponseEntity<ApiResponse<List<SlotDTO>>> generateSlots(
+    @PreAuthorize("hasRole('HOSPITAL_ADMIN')")
+    public ResponseEntity<ApiResponse<SlotGenerationJobDTO>> generateSlots(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
         LocalDate target = date == null ? LocalDate.now() : date;
-        List<SlotDTO> generated = new ArrayList<>();
-        try {
-            List<Doctor> doctors = doctorRepository.findAll();
-            for (Doctor d : doctors) {
-                try {
-                    generated.addAll(slotService.generateSlotsForDoctor(d.getId(), target));
-                } catch (Exception ex) {
-                    log.error("Failed to generate slots for doctor {} on {}: {}", d.getId(), target,
-                            ex.getMessage());
-                }
-            }
-            ApiResponse<List<SlotDTO>> resp = ApiResponse
-                    .success("Generated " + generated.size() + " slots for " + target, generated);
-            return ResponseEntity.ok(resp);
-        } catch (Exception e) {
-            log.error("Manual slot generation failed: {}", e.getMessage(), e);
-            ApiResponse<List<SlotDTO>> resp = ApiResponse.error("Slot generation failed: " + e.getMessage());
-            return ResponseEntity.status(500).body(resp);
-        }
+        return submitGenerationJob(target, target);
+    }
+
+    /**
+     * Submits a background generation job for all doctors. Either {@code date}
+     * or {@code from}/{@code to} (inclusive) selects the days.
+     */
+    @PostMapping("/generation-jobs")
+    @PreAuthorize("hasRole('HOSPITAL_ADMIN')")
+    public ResponseEntity<ApiResponse<SlotGenerationJobDTO>> createGenerationJob(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate start = date != null ? date : from != null ? from : LocalDate.now();
+        LocalDate end = date != null ? date : to != null ? to : start;
+        return submitGenerationJob(start, end);
+    }
+
+    @GetMapping("/generation-jobs/{jobId}")
+    @PreAuthorize("hasRole('HOSPITAL_ADMIN')")
+    public ResponseEntity<ApiResponse<SlotGenerationJobDTO>> getGenerationJob(@PathVariable String jobId) {
+        SlotGenerationJob job = generationJobService.find(jobId)
+                .orElseThrow(() -> new EntityNotFoundException("Generation job not found: " + jobId));
+        return ResponseEntity.ok(ApiResponse.success(job.toDTO()));
+    }
+
+    @GetMapping("/generation-jobs")
+    @PreAuthorize("hasRole('HOSPITAL_ADMIN')")
+    public ResponseEntity<ApiResponse<List<SlotGenerationJobDTO>>> listGenerationJobs() {
+        var jobs = generationJobService.list().stream().map(SlotGenerationJob::toDTO).toList();
+        return ResponseEntity.ok(ApiResponse.success(jobs));
+    }
+
+    private ResponseEntity<ApiResponse<SlotGenerationJobDTO>> submitGenerationJob(LocalDate from, LocalDate to) {
+        SlotGenerationJob job = generationJobService.submitRange(from, to);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/slots/generation-jobs/" + job.getId()))
+                .body(ApiResponse.success("Generation job submitted for " + from + " to " + to, job.toDTO()));
     }
 
     @PostMapping("/doctor/{doctorId}/slots/generate")
@@ -102,4 +180,35 @@ public class SlotController {
         var slots = slotService.generateSlotsForDoctor(doctorId, date);
         return ResponseEntity.ok(slots);
     }
+
+    // Read-path generation counters (generated vs coalesced requests)
+    @GetMapping("/generation/stats")
+    @PreAuthorize("hasRole('HOSPITAL_ADMIN')")
+    public ResponseEntity<ApiResponse<SlotGenerationCoalescer.Stats>> getGenerationStats() {
+        return ResponseEntity.ok(ApiResponse.success(generationCoalescer.getStats()));
+    }
+
+    // Availability cache hit/miss counters, for sizing slots.cache.max-entries
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('HOSPITAL_ADMIN')")
+    public ResponseEntity<ApiResponse<AvailabilityCache.Stats>> getCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success(availabilityCache.getStats()));
+    }
+
+    // In-memory availability index size (bytes per doctor-day) and hit counters
+    @GetMapping("/index/stats")
+    @PreAuthorize("hasRole('HOSPITAL_ADMIN')")
+    public ResponseEntity<ApiResponse<AvailabilityIndex.Stats>> getIndexStats() {
+        return ResponseEntity.ok(ApiResponse.success(availabilityIndex.getStats()));
+    }
+
+    /**
+     * Compares the availability index with the database now and drops the
+     * doctor-days that differ; returns how many were dropped.
+     */
+    @PostMapping("/index/check")
+    @PreAuthorize("hasRole('HOSPITAL_ADMIN')")
+    public ResponseEntity<ApiResponse<Integer>> checkIndex() {
+        return ResponseEntity.ok(ApiResponse.success(availabilityIndex.checkConsistency()));
+    }
 }
@@ -33,6 +33,11 @@ public class SlotTemplateController {
         try {
             dto.setDoctorId(doctorId);
             SlotTemplateRequestDTO result = slotTemplateService.createOrUpdateSlotTemplate(dto);
+            if (!result.getConflictingSlotIds().isEmpty()) {
+                return ResponseEntity.ok(ApiResponse.success("Slot template created/updated; "
+                        + result.getConflictingSlotIds().size()
+                        + " booked slots no longer match the templates and need rescheduling", result));
+            }
             return ResponseEntity.ok(ApiResponse.success("Slot template created/updated successfully", result));
         } catch (BusinessException ex) {
             log.warn("Business error while creating/updating schedule: {}", ex.getMessage());
@@ -1,5 +1,6 @@
 package com.doc_app.booking.controller;
 
+import com.doc_app.booking.dto.DayAvailabilityDTO;
 import com.doc_app.booking.dto.DoctorDTO;
 import com.doc_app.booking.dto.SlotDTO;
 import com.doc_app.booking.service.CommonService;
@@ -134,12 +135,18 @@ public class WhatsAppBookingController {
             message.append("🏥 *Hospital:* ").append(doctor.getHospitalName()).append("\n\n");
             message.append("📅 *Available Dates:*\n\n");
 
-            LocalDate today = LocalDate.now();
-            for (int i = 1; i <= 7; i++) {
-                LocalDate date = today.plusDays(i);
-                message.append(String.format("%d. 📅 %s (%s)\n", i,
-                        date.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
-                        date.getDayOfWeek().toString()));
+            // reply number N maps to today + N days, so every day stays listed; full days are marked
+            List<DayAvailabilityDTO> summary = slotService.getAvailabilitySummary(doctor.getId(),
+                    LocalDate.now().plusDays(1), 7);
+            for (int i = 1; i <= summary.size(); i++) {
+                DayAvailabilityDTO day = summary.get(i - 1);
+                String availability = day.getFreeSlots() > 0
+                        ? String.format("%d free, from %s", day.getFreeSlots(),
+                                day.getFirstFreeTime().format(DateTimeFormatter.ofPattern("hh:mm a")))
+                        : day.getTotalSlots() > 0 ? "fully booked" : "no slots";
+                message.append(String.format("%d. 📅 %s (%s) - %s\n", i,
+                        day.getDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
+                        day.getDate().getDayOfWeek().toString(), availability));
             }
 
             message.append("\n💬 Reply with date number (1-7) to see slots!");
@@ -20,6 +20,7 @@ public class AppointmentDTO {
     private String appointeePhone;
     private String appointeeGender;
     private String notes;
+    private LocalDateTime holdExpiresAt;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
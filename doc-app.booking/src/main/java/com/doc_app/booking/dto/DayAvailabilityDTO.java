@@ -0,0 +1,18 @@
+package com.doc_app.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DayAvailabilityDTO {
+    private LocalDate date;
+    private int totalSlots;
+    private int freeSlots;
+    // start of the earliest free slot, null when the day is full
+    private LocalTime firstFreeTime;
+}
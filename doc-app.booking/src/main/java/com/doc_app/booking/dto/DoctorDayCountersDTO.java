@@ -0,0 +1,16 @@
+package com.doc_app.booking.dto;
+
+import com.doc_app.booking.model.AppointmentStatus;
+import lombok.Data;
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+public class DoctorDayCountersDTO {
+    private Long doctorId;
+    private LocalDate date;
+    private long freeSlots;
+    private long totalAppointments;
+    // every status is present, with 0 when there are none
+    private Map<AppointmentStatus, Long> appointmentsByStatus;
+}
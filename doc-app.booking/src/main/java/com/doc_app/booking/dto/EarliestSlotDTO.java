@@ -0,0 +1,19 @@
+package com.doc_app.booking.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+public class EarliestSlotDTO {
+    private Long doctorId;
+    private String doctorName;
+    private String specialization;
+    private Long hospitalId;
+    private String hospitalName;
+    // null in VIRTUAL mode until the slot is booked, and past the generation horizon until it is generated
+    private Long slotId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    // only set for location searches
+    private Double distanceKm;
+}
@@ -0,0 +1,23 @@
+package com.doc_app.booking.dto;
+
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+public class SlotGenerationJobDTO {
+    private String id;
+    private String type;
+    private String status;
+    private LocalDate from;
+    private LocalDate to;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private int doctors;
+    private int partitions;
+    private int completedPartitions;
+    private int failedPartitions;
+    private int slotsCreated;
+    private String error;
+}
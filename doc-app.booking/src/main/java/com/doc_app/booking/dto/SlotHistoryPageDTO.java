@@ -0,0 +1,21 @@
+package com.doc_app.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One keyset page of a doctor's slot history. Pass {@code nextCursor} as
+ * {@code after} to get the next page; it is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotHistoryPageDTO {
+    private List<SlotDTO> content;
+    private int size;
+    private LocalDateTime nextCursor;
+}
@@ -94,6 +94,8 @@ public interface EntityMapper {
     @Mapping(target = "appointeeAge", source = "appointeeAge")
     @Mapping(target = "appointeePhone", source = "appointeePhone")
     @Mapping(target = "appointeeGender", source = "appointeeGender")
+    @Mapping(target = "holdExpiresAt", ignore = true)
+    @Mapping(target = "archivedSlotId", ignore = true)
     Appointment toAppointment(CreateAppointmentRequest request);
 
     @Mapping(target = "id", ignore = true)
@@ -102,6 +104,8 @@ public interface EntityMapper {
     @Mapping(target = "doctor", ignore = true)
     @Mapping(target = "patient", ignore = true)
     @Mapping(target = "appointmentDateTime", source = "appointmentDateTime")
+    @Mapping(target = "holdExpiresAt", ignore = true)
+    @Mapping(target = "archivedSlotId", ignore = true)
     void updateAppointment(@MappingTarget Appointment appointment, UpdateAppointmentRequest request);
 
     @Mapping(target = "appointmentId", source = "appointment.id")
@@ -0,0 +1,52 @@
+package com.doc_app.booking.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Several slots of one doctor booked together, e.g. for a family or a
+ * follow-up series. Either every appointment is created or none.
+ */
+@Data
+public class BatchAppointmentRequest {
+    @NotNull
+    @Positive
+    private Long doctorId;
+
+    // Patient the appointments are booked by (optional for reserved)
+    @Size(min = 10, max = 15, message = "Phone number must be between 10-15 characters")
+    private String patientPhone;
+
+    @NotEmpty
+    @Size(max = 20, message = "At most 20 appointments can be booked at once")
+    private List<@Valid Item> items;
+
+    private boolean reserved;
+
+    public boolean isReserved() {
+        return reserved || (patientPhone == null || patientPhone.isBlank());
+    }
+
+    @Data
+    public static class Item {
+        @Positive
+        private Long slotId;
+
+        // VIRTUAL availability only: the slot start, when the slot has no row yet
+        private LocalDateTime appointmentDateTime;
+
+        private String appointeeName;
+        private Integer appointeeAge;
+        private String appointeePhone;
+        private String appointeeGender;
+
+        @Size(max = 1000)
+        private String notes;
+    }
+}
@@ -3,9 +3,11 @@ package com.doc_app.booking.dto.request;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import java.time.DayOfWeek;
 import java.time.LocalTime;
+import java.util.List;
 
 @Data
 public class SlotTemplateRequestDTO {
@@ -29,4 +31,8 @@ public class SlotTemplateRequestDTO {
     private Integer slotDurationMinutes;
 
     private boolean active = true;
+
+    // response only: booked slots that no longer match the templates and were left as they are
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private List<Long> conflictingSlotIds = List.of();
 }
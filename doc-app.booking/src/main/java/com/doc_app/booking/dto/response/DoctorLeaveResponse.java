@@ -1,12 +1,16 @@
 package com.doc_app.booking.dto.response;
 
+import com.doc_app.booking.dto.AppointmentDTO;
 import java.time.LocalDate;
+import java.util.List;
 
 public class DoctorLeaveResponse {
     private Long id;
     private Long doctorId;
     private LocalDate date;
     private String reason;
+    // appointments on the leave day that need to be rebooked (only set on creation)
+    private List<AppointmentDTO> affectedAppointments;
 
     public DoctorLeaveResponse() {
     }
@@ -18,6 +22,12 @@ public class DoctorLeaveResponse {
         this.reason = reason;
     }
 
+    public DoctorLeaveResponse(Long id, Long doctorId, LocalDate date, String reason,
+            List<AppointmentDTO> affectedAppointments) {
+        this(id, doctorId, date, reason);
+        this.affectedAppointments = affectedAppointments;
+    }
+
     public Long getId() {
         return id;
     }
@@ -49,4 +59,12 @@ public class DoctorLeaveResponse {
     public void setReason(String reason) {
         this.reason = reason;
     }
+
+    public List<AppointmentDTO> getAffectedAppointments() {
+        return affectedAppointments;
+    }
+
+    public void setAffectedAppointments(List<AppointmentDTO> affectedAppointments) {
+        this.affectedAppointments = affectedAppointments;
+    }
 }
@@ -6,7 +6,7 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = @Index(name = "idx_appointments_hold_expires_at", columnList = "hold_expires_at"))
 public class Appointment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -38,6 +38,14 @@ public class Appointment {
 
     private String notes;
 
+    // slot_archive id of the slot once the archiver has moved it out of the slots table (slot is null then)
+    @Column(name = "archived_slot_id")
+    private Long archivedSlotId;
+
+    // set only while a RESERVED appointment is a time-limited hold; cleared on confirm and on expiry
+    @Column(name = "hold_expires_at")
+    private LocalDateTime holdExpiresAt;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
@@ -1,13 +1,17 @@
 package com.doc_app.booking.model;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDate;
 import java.time.LocalTime;
 
 @Data
 @Entity
-@Table(name = "slots")
+@Table(name = "slots", uniqueConstraints = @UniqueConstraint(name = "uk_slots_doctor_date_start", columnNames = {
+        "doctor_id", "date", "start_time" }))
 public class Slot {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -27,5 +31,23 @@ public class Slot {
     private LocalTime endTime;
 
     @Column(nullable = false)
+    @Setter(AccessLevel.NONE)
     private boolean available = true;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    @ColumnDefault("'AVAILABLE'")
+    private SlotStatus status = SlotStatus.AVAILABLE;
+
+    // closed by a template change it no longer fits; kept only for the cancelled appointments that reference it,
+    // and never reopened when a leave on its day is removed
+    @Column(nullable = false)
+    @ColumnDefault("false")
+    private boolean retired;
+
+    // available is kept as a mirror of the status for the free-slot indexes and queries
+    public void setStatus(SlotStatus status) {
+        this.status = status;
+        this.available = status == SlotStatus.AVAILABLE;
+    }
 }
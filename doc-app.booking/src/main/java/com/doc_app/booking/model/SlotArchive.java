@@ -0,0 +1,40 @@
+package com.doc_app.booking.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * A past slot moved out of the slots table by the nightly archiver. Keeps the
+ * original slot id and its final booking status; rows are only written and
+ * read through plain JDBC.
+ */
+@Data
+@Entity
+@Table(name = "slot_archive", indexes = @Index(name = "idx_slot_archive_doctor_date_start", columnList = "doctor_id, "
+        + "date, start_time"))
+public class SlotArchive {
+    @Id
+    private Long id;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(nullable = false)
+    private LocalTime startTime;
+
+    @Column(nullable = false)
+    private LocalTime endTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private SlotStatus status;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,26 @@
+package com.doc_app.booking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+/**
+ * Last day up to which slots have been materialized for a doctor. The nightly
+ * generator only extends the horizon from here; a missing row means the
+ * doctor's whole horizon has to be (re)generated.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "slot_generation_watermarks")
+public class SlotGenerationWatermark {
+    @Id
+    @Column(name = "doctor_id")
+    private Long doctorId;
+
+    @Column(name = "generated_through", nullable = false)
+    private LocalDate generatedThrough;
+}
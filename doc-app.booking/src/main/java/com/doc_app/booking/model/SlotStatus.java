@@ -0,0 +1,27 @@
+package com.doc_app.booking.model;
+
+/**
+ * Booking state of a slot row. Maintained on write by the appointment service
+ * so that availability reads never need to look at appointments.
+ */
+public enum SlotStatus {
+    AVAILABLE,
+    /** Held by a RESERVED appointment (no patient yet). */
+    HELD,
+    /** Taken by a SCHEDULED or COMPLETED appointment. */
+    BOOKED,
+    /** Not bookable: doctor on leave, or the slot was retired by a template change. */
+    BLOCKED;
+
+    /**
+     * The status a slot takes while an appointment in {@code status} holds it;
+     * AVAILABLE for a cancelled appointment.
+     */
+    public static SlotStatus of(AppointmentStatus status) {
+        return switch (status) {
+            case RESERVED -> HELD;
+            case SCHEDULED, COMPLETED -> BOOKED;
+            case CANCELLED -> AVAILABLE;
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package com.doc_app.booking.repository;
+
+import com.doc_app.booking.model.Appointment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC inserts into the appointments table. JPA's IDENTITY id generation
+ * disables Hibernate insert batching, so bookings that create several
+ * appointments at once write them in one JDBC batch here and read the ids back
+ * as generated keys.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AppointmentJdbcRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO appointments (doctor_id, patient_id, slot_id, "
+            + "appointment_date_time, appointee_name, appointee_age, appointee_phone, appointee_gender, status, "
+            + "notes, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the appointments in one batch and sets their ids and creation
+     * time. Doctor and status must be set; patient and slot may be null.
+     */
+    public void insertAll(List<Appointment> appointments) {
+        if (appointments.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, new String[] { "id" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Appointment a = appointments.get(i);
+                        ps.setLong(1, a.getDoctor().getId());
+                        ps.setObject(2, a.getPatient() != null ? a.getPatient().getId() : null, Types.BIGINT);
+                        ps.setObject(3, a.getSlot() != null ? a.getSlot().getId() : null, Types.BIGINT);
+                        ps.setObject(4, a.getAppointmentDateTime());
+                        ps.setString(5, a.getAppointeeName());
+                        ps.setObject(6, a.getAppointeeAge(), Types.INTEGER);
+                        ps.setString(7, a.getAppointeePhone());
+                        ps.setString(8, a.getAppointeeGender());
+                        ps.setString(9, a.getStatus().name());
+                        ps.setString(10, a.getNotes());
+                        ps.setObject(11, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return appointments.size();
+                    }
+                }, keys);
+
+        // one key map per row, in batch order; drivers differ in the key's case, so take its only value
+        List<Map<String, Object>> rows = keys.getKeyList();
+        for (int i = 0; i < appointments.size(); i++) {
+            appointments.get(i).setId(((Number) rows.get(i).values().iterator().next()).longValue());
+            appointments.get(i).setCreatedAt(now);
+        }
+    }
+}
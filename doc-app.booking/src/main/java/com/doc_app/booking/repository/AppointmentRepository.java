@@ -2,11 +2,19 @@ package com.doc_app.booking.repository;
 
 import com.doc_app.booking.model.Appointment;
 import com.doc_app.booking.model.AppointmentStatus;
+import com.doc_app.booking.repository.projection.DoctorAppointmentTimeView;
+import com.doc_app.booking.repository.projection.ExpiredHoldView;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
@@ -43,4 +51,31 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
 
     List<Appointment> findBySlot_IdIn(List<Long> slotIds);
 
+    @Query("SELECT a.doctor.id AS doctorId, a.appointmentDateTime AS appointmentDateTime FROM Appointment a "
+            + "WHERE a.doctor.id IN ?1 AND a.appointmentDateTime BETWEEN ?2 AND ?3 AND a.status IN ?4")
+    List<DoctorAppointmentTimeView> findAppointmentTimes(Collection<Long> doctorIds, LocalDateTime start,
+            LocalDateTime end, Collection<AppointmentStatus> statuses);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Appointment a WHERE a.id = ?1")
+    Optional<Appointment> findByIdForUpdate(Long id);
+
+    // oldest expired holds first, read from idx_appointments_hold_expires_at
+    @Query("SELECT a.id AS appointmentId, s.id AS slotId, a.doctor.id AS doctorId, s.date AS date "
+            + "FROM Appointment a JOIN a.slot s WHERE a.holdExpiresAt <= ?1 "
+            + "AND a.status = com.doc_app.booking.model.AppointmentStatus.RESERVED ORDER BY a.holdExpiresAt")
+    List<ExpiredHoldView> findExpiredHolds(LocalDateTime now, Pageable page);
+
+    /**
+     * Cancels the given holds if they are still unconfirmed and expired at
+     * {@code now}; a hold confirmed in the meantime is left alone.
+     *
+     * @return the number of holds cancelled
+     */
+    @Modifying
+    @Query("UPDATE Appointment a SET a.status = com.doc_app.booking.model.AppointmentStatus.CANCELLED, "
+            + "a.holdExpiresAt = NULL, a.updatedAt = ?2 WHERE a.id IN ?1 "
+            + "AND a.status = com.doc_app.booking.model.AppointmentStatus.RESERVED AND a.holdExpiresAt <= ?2")
+    int expireHolds(Collection<Long> ids, LocalDateTime now);
+
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.doc_app.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Aggregate counters for a doctor's day, read in a single statement.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DoctorCountersRepository {
+
+    /** Key under which the free slot count is returned next to the appointment statuses. */
+    public static final String FREE_SLOTS = "FREE_SLOTS";
+
+    private static final String DAY_COUNTS_SQL = "SELECT a.status AS label, COUNT(*) AS total FROM appointments a "
+            + "WHERE a.doctor_id = ? AND a.appointment_date_time >= ? AND a.appointment_date_time < ? "
+            + "GROUP BY a.status "
+            + "UNION ALL "
+            + "SELECT '" + FREE_SLOTS + "' AS label, COUNT(*) AS total FROM slots s "
+            + "WHERE s.doctor_id = ? AND s.date = ? AND s.available = TRUE";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Appointment counts per status name plus the {@link #FREE_SLOTS} count of
+     * materialized available slots on {@code date}. Statuses without
+     * appointments are absent.
+     */
+    public Map<String, Long> countDay(Long doctorId, LocalDate date) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        jdbcTemplate.query(DAY_COUNTS_SQL, (RowCallbackHandler) rs -> {
+            counts.put(rs.getString("label"), rs.getLong("total"));
+        }, doctorId, Timestamp.valueOf(date.atStartOfDay()), Timestamp.valueOf(date.plusDays(1).atStartOfDay()),
+                doctorId, Date.valueOf(date));
+        return counts;
+    }
+}
@@ -2,10 +2,13 @@ package com.doc_app.booking.repository;
 
 import com.doc_app.booking.model.Doctor;
 import com.doc_app.booking.model.DoctorLeave;
+import com.doc_app.booking.repository.projection.DoctorDateView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -13,4 +16,12 @@ public interface DoctorLeaveRepository extends JpaRepository<DoctorLeave, Long>
     List<DoctorLeave> findByDoctorAndDateBetween(Doctor doctor, LocalDate start, LocalDate end);
 
     boolean existsByDoctorAndDate(Doctor doctor, LocalDate date);
+
+    boolean existsByDoctor_IdAndDateAndActiveTrue(Long doctorId, LocalDate date);
+
+    List<DoctorLeave> findByDoctor_IdAndDateBetween(Long doctorId, LocalDate start, LocalDate end);
+
+    @Query("SELECT l.doctor.id AS doctorId, l.date AS date FROM DoctorLeave l "
+            + "WHERE l.active = true AND l.doctor.id IN ?1 AND l.date BETWEEN ?2 AND ?3")
+    List<DoctorDateView> findActiveLeaveDays(Collection<Long> doctorIds, LocalDate start, LocalDate end);
 }
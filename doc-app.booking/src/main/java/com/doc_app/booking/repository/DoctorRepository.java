@@ -23,6 +23,9 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
 
         List<Doctor> findBySpecialization(String specialization);
 
+        @Query("SELECT d.id FROM Doctor d ORDER BY d.id")
+        List<Long> findAllIds();
+
         @Query("SELECT d FROM Doctor d JOIN d.hospital h " +
                         "WHERE (:query IS NULL OR " +
                         "lower(d.firstName) LIKE lower(concat('%', :query, '%')) OR " +
@@ -0,0 +1,85 @@
+package com.doc_app.booking.repository;
+
+import com.doc_app.booking.model.SlotStatus;
+import com.doc_app.booking.repository.SlotJdbcRepository.SlotState;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Moves past slots from the slots table to slot_archive and reads a doctor's
+ * slot history across both tables.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SlotArchiveRepository {
+
+    private static final String HISTORY_COLUMNS = "id, doctor_id, date, start_time, end_time, status";
+
+    // keyset page: strictly after (date, start_time), which is unique per doctor
+    private static final String HISTORY_WHERE = " WHERE doctor_id = ? AND date BETWEEN ? AND ? "
+            + "AND (date > ? OR (date = ? AND start_time > ?))";
+
+    private static final String HISTORY_SQL = "SELECT " + HISTORY_COLUMNS + " FROM slots" + HISTORY_WHERE
+            + " UNION ALL SELECT " + HISTORY_COLUMNS + " FROM slot_archive" + HISTORY_WHERE
+            + " ORDER BY date, start_time LIMIT ?";
+
+    // highest id among the next batch of archivable slots; bounds every statement of the batch
+    private static final String BATCH_UPPER_ID_SQL = "SELECT MAX(id) FROM (SELECT id FROM slots WHERE date < ? "
+            + "ORDER BY id LIMIT ?) b";
+
+    private static final String COPY_SQL = "INSERT INTO slot_archive (id, doctor_id, date, start_time, end_time, "
+            + "status, archived_at) SELECT id, doctor_id, date, start_time, end_time, status, CURRENT_TIMESTAMP "
+            + "FROM slots WHERE date < ? AND id <= ?";
+
+    // the link moves to archived_slot_id; slot_id has to go because of its foreign key to slots
+    private static final String UNLINK_SQL = "UPDATE appointments SET archived_slot_id = slot_id, slot_id = NULL "
+            + "WHERE slot_id IN (SELECT id FROM slots WHERE date < ? AND id <= ?)";
+
+    private static final String DELETE_SQL = "DELETE FROM slots WHERE date < ? AND id <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Up to {@code limit} of the doctor's slots, live or archived, dated between
+     * {@code from} and {@code to} and starting after
+     * {@code afterDate}/{@code afterTime}, ordered by date and start time.
+     */
+    public List<SlotState> findHistory(Long doctorId, LocalDate from, LocalDate to, LocalDate afterDate,
+            LocalTime afterTime, int limit) {
+        Object[] where = { doctorId, from, to, afterDate, afterDate, afterTime };
+        Object[] args = new Object[where.length * 2 + 1];
+        System.arraycopy(where, 0, args, 0, where.length);
+        System.arraycopy(where, 0, args, where.length, where.length);
+        args[args.length - 1] = limit;
+        return jdbcTemplate.query(HISTORY_SQL, (rs, i) -> new SlotState(
+                rs.getLong("id"),
+                rs.getLong("doctor_id"),
+                rs.getObject("date", LocalDate.class),
+                rs.getObject("start_time", LocalTime.class),
+                rs.getObject("end_time", LocalTime.class),
+                SlotStatus.valueOf(rs.getString("status"))), args);
+    }
+
+    /**
+     * Moves up to {@code batchSize} slots dated before {@code cutoff} to the
+     * archive. Appointments of an archived slot point to its slot_archive row
+     * through archived_slot_id instead of slot_id. Must run inside a
+     * transaction.
+     *
+     * @return the number of slots archived, 0 when none are left
+     */
+    public int archiveBatch(LocalDate cutoff, int batchSize) {
+        Long upperId = jdbcTemplate.queryForObject(BATCH_UPPER_ID_SQL, Long.class, cutoff, batchSize);
+        if (upperId == null) {
+            return 0;
+        }
+        jdbcTemplate.update(COPY_SQL, cutoff, upperId);
+        jdbcTemplate.update(UNLINK_SQL, cutoff, upperId);
+        return jdbcTemplate.update(DELETE_SQL, cutoff, upperId);
+    }
+}
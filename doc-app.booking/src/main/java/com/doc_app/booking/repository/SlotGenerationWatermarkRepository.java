@@ -0,0 +1,22 @@
+package com.doc_app.booking.repository;
+
+import com.doc_app.booking.model.SlotGenerationWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+@Repository
+public interface SlotGenerationWatermarkRepository extends JpaRepository<SlotGenerationWatermark, Long> {
+
+    @Modifying
+    @Query("UPDATE SlotGenerationWatermark w SET w.generatedThrough = ?2 WHERE w.doctorId IN ?1")
+    int advance(Collection<Long> doctorIds, LocalDate generatedThrough);
+
+    @Modifying
+    @Query("DELETE FROM SlotGenerationWatermark w WHERE w.doctorId = ?1")
+    int reset(Long doctorId);
+}
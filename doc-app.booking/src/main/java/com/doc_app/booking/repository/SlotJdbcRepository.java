@@ -0,0 +1,316 @@
+package com.doc_app.booking.repository;
+
+import com.doc_app.booking.model.SlotStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC access to the slots table for bulk writes. JPA's IDENTITY id
+ * generation disables Hibernate insert batching, so bulk materialization goes
+ * through JdbcTemplate batches instead.
+ *
+ * Writes are insert-if-absent against the (doctor_id, date, start_time) unique
+ * key, so concurrent generators never create duplicates and never need to read
+ * existing slots first.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class SlotJdbcRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO slots (doctor_id, date, start_time, end_time, available, "
+            + "status) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String POSTGRES_UPSERT_SQL = INSERT_SQL
+            + " ON CONFLICT (doctor_id, date, start_time) DO NOTHING";
+
+    private static final String H2_UPSERT_SQL = "MERGE INTO slots t USING (VALUES (CAST(? AS BIGINT), "
+            + "CAST(? AS DATE), CAST(? AS TIME), CAST(? AS TIME), CAST(? AS BOOLEAN), CAST(? AS VARCHAR(16)))) "
+            + "AS s(doctor_id, date, start_time, end_time, available, status) "
+            + "ON t.doctor_id = s.doctor_id AND t.date = s.date AND t.start_time = s.start_time "
+            + "WHEN NOT MATCHED THEN INSERT (doctor_id, date, start_time, end_time, available, status) "
+            + "VALUES (s.doctor_id, s.date, s.start_time, s.end_time, s.available, s.status)";
+
+    // the status each slot should have given its appointments and the doctor's leave days. Like generation,
+    // a slot is booked by a linked appointment or by any appointment of the doctor starting within
+    // [start_time, end_time), which covers time-only appointments created without a slot
+    private static final String STATUS_DRIFT_SQL = "SELECT id, doctor_id, date, status, desired FROM ("
+            + "SELECT s.id, s.doctor_id, s.date, s.status, s.available, CASE "
+            // retired slots only carry cancelled appointments; one starting inside must not book or reopen them
+            + "WHEN s.retired = TRUE THEN 'BLOCKED' "
+            + "WHEN EXISTS (SELECT 1 FROM appointments a WHERE a.slot_id = s.id "
+            + "AND a.status IN ('SCHEDULED', 'COMPLETED')) THEN 'BOOKED' "
+            + "WHEN EXISTS (SELECT 1 FROM appointments a WHERE a.doctor_id = s.doctor_id "
+            + "AND CAST(a.appointment_date_time AS DATE) = s.date "
+            + "AND CAST(a.appointment_date_time AS TIME) >= s.start_time "
+            + "AND CAST(a.appointment_date_time AS TIME) < s.end_time "
+            + "AND a.status IN ('SCHEDULED', 'COMPLETED')) THEN 'BOOKED' "
+            + "WHEN EXISTS (SELECT 1 FROM appointments a WHERE a.slot_id = s.id AND a.status = 'RESERVED') "
+            + "THEN 'HELD' "
+            + "WHEN EXISTS (SELECT 1 FROM doctor_leaves l WHERE l.doctor_id = s.doctor_id AND l.date = s.date "
+            + "AND l.active = TRUE) THEN 'BLOCKED' "
+            // a slot blocked without a leave day stays blocked (retired before the retired flag existed)
+            + "WHEN s.status = 'BLOCKED' THEN 'BLOCKED' "
+            + "ELSE 'AVAILABLE' END AS desired "
+            + "FROM slots s WHERE s.date >= ?) d "
+            + "WHERE d.status <> d.desired OR d.available <> (d.desired = 'AVAILABLE')";
+
+    // the data steps of V4__add_unique_slot_key.sql, for databases where the migration never ran:
+    // unbooked duplicates of a key that has a booked row go first, then the oldest row of a key is kept
+    private static final String DELETE_DUPLICATES_OF_BOOKED_SQL = "DELETE FROM slots WHERE id IN ("
+            + "SELECT s.id FROM slots s WHERE NOT EXISTS (SELECT 1 FROM appointments a WHERE a.slot_id = s.id) "
+            + "AND EXISTS (SELECT 1 FROM slots d WHERE d.doctor_id = s.doctor_id AND d.date = s.date "
+            + "AND d.start_time = s.start_time AND d.id <> s.id "
+            + "AND EXISTS (SELECT 1 FROM appointments a WHERE a.slot_id = d.id)))";
+
+    private static final String DELETE_NEWER_DUPLICATES_SQL = "DELETE FROM slots WHERE id IN ("
+            + "SELECT s.id FROM slots s JOIN slots d ON d.doctor_id = s.doctor_id AND d.date = s.date "
+            + "AND d.start_time = s.start_time AND d.id < s.id "
+            + "WHERE NOT EXISTS (SELECT 1 FROM appointments a WHERE a.slot_id = s.id) "
+            + "AND NOT EXISTS (SELECT 1 FROM appointments a WHERE a.slot_id = d.id))";
+
+    private static final String DUPLICATE_KEYS_SQL = "SELECT doctor_id, date, start_time FROM slots "
+            + "GROUP BY doctor_id, date, start_time HAVING COUNT(*) > 1 ORDER BY doctor_id, date, start_time";
+
+    private static final String CREATE_UNIQUE_KEY_SQL = "CREATE UNIQUE INDEX IF NOT EXISTS "
+            + "uk_slots_doctor_date_start ON slots (doctor_id, date, start_time)";
+
+    private static final Set<String> UNIQUE_KEY_COLUMNS = Set.of("doctor_id", "date", "start_time");
+
+    // compare-and-set on the old status so a booking made since the scan is left alone
+    private static final String SET_STATUS_SQL = "UPDATE slots SET status = ?, available = ? "
+            + "WHERE id = ? AND status = ?";
+
+    private static final String SCAN_SQL = "SELECT id, doctor_id, date, start_time, end_time, status FROM slots "
+            + "WHERE date BETWEEN ? AND ? ORDER BY doctor_id, date, start_time";
+
+    private static final int SCAN_FETCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile String upsertSql;
+
+    /**
+     * Inserts the rows whose (doctor, date, start time) key does not exist yet,
+     * using JDBC batches of {@code batchSize} statements.
+     *
+     * @return the rows that were actually inserted, in input order
+     */
+    public List<SlotRow> insertIfAbsent(List<SlotRow> rows, int batchSize) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        String sql = upsertSql();
+        if (sql == null) {
+            return insertIgnoringDuplicates(rows);
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(sql, rows, Math.max(1, batchSize), (ps, row) -> {
+            ps.setLong(1, row.doctorId());
+            ps.setObject(2, row.date());
+            ps.setObject(3, row.startTime());
+            ps.setObject(4, row.endTime());
+            ps.setBoolean(5, row.available());
+            ps.setString(6, row.status().name());
+        });
+        List<SlotRow> inserted = new ArrayList<>();
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int c : batch) {
+                // drivers may report SUCCESS_NO_INFO (-2) for batched statements; count those as inserted
+                if (c != 0) {
+                    inserted.add(rows.get(i));
+                }
+                i++;
+            }
+        }
+        return inserted;
+    }
+
+    // Fallback for databases without an upsert dialect: row by row, duplicates skipped
+    private List<SlotRow> insertIgnoringDuplicates(List<SlotRow> rows) {
+        List<SlotRow> inserted = new ArrayList<>();
+        for (SlotRow row : rows) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, row.doctorId(), row.date(), row.startTime(), row.endTime(),
+                        row.available(), row.status().name());
+                inserted.add(row);
+            } catch (DuplicateKeyException e) {
+                log.debug("Slot {} {} {} already exists", row.doctorId(), row.date(), row.startTime());
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * Whether the slots table has a unique index on exactly (doctor_id, date,
+     * start_time), which the ON CONFLICT / MERGE upserts need.
+     */
+    public boolean hasUniqueSlotKey() {
+        Boolean found = jdbcTemplate.execute((ConnectionCallback<Boolean>) con -> {
+            DatabaseMetaData metaData = con.getMetaData();
+            String table = metaData.storesUpperCaseIdentifiers() ? "SLOTS" : "slots";
+            Map<String, Set<String>> indexes = new HashMap<>();
+            try (ResultSet rs = metaData.getIndexInfo(con.getCatalog(), con.getSchema(), table, true, false)) {
+                while (rs.next()) {
+                    String index = rs.getString("INDEX_NAME");
+                    String column = rs.getString("COLUMN_NAME");
+                    if (index != null && column != null) {
+                        indexes.computeIfAbsent(index, k -> new HashSet<>()).add(column.toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            return indexes.containsValue(UNIQUE_KEY_COLUMNS);
+        });
+        return Boolean.TRUE.equals(found);
+    }
+
+    /**
+     * Removes duplicate (doctor, date, start time) rows as V4 does and creates
+     * uk_slots_doctor_date_start. Booked rows are never deleted, so a key
+     * booked more than once is left alone and the index is not created. Must
+     * run inside a transaction.
+     *
+     * @return the keys still duplicated, as "doctor date start"; empty when the
+     *         index was created
+     */
+    public List<String> createUniqueSlotKey() {
+        int deleted = jdbcTemplate.update(DELETE_DUPLICATES_OF_BOOKED_SQL)
+                + jdbcTemplate.update(DELETE_NEWER_DUPLICATES_SQL);
+        List<String> remaining = jdbcTemplate.query(DUPLICATE_KEYS_SQL, (rs, i) -> rs.getLong("doctor_id") + " "
+                + rs.getObject("date", LocalDate.class) + " " + rs.getObject("start_time", LocalTime.class));
+        if (remaining.isEmpty()) {
+            jdbcTemplate.execute(CREATE_UNIQUE_KEY_SQL);
+        }
+        log.info("Removed {} duplicate slots, {} keys are booked more than once", deleted, remaining.size());
+        return remaining;
+    }
+
+    /**
+     * Slots dated {@code from} or later whose status (or available flag)
+     * disagrees with their appointments and leave days.
+     */
+    public List<SlotStatusDrift> findStatusDrift(LocalDate from) {
+        return jdbcTemplate.query(STATUS_DRIFT_SQL, (rs, i) -> new SlotStatusDrift(
+                rs.getLong("id"),
+                rs.getLong("doctor_id"),
+                rs.getObject("date", LocalDate.class),
+                SlotStatus.valueOf(rs.getString("status")),
+                SlotStatus.valueOf(rs.getString("desired"))), from);
+    }
+
+    /**
+     * Moves each drifted slot to its desired status, unless its status changed
+     * since it was read.
+     *
+     * @return the drifts that were applied
+     */
+    public List<SlotStatusDrift> applyStatus(List<SlotStatusDrift> drifts, int batchSize) {
+        if (drifts.isEmpty()) {
+            return List.of();
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(SET_STATUS_SQL, drifts, Math.max(1, batchSize), (ps, d) -> {
+            ps.setString(1, d.desired().name());
+            ps.setBoolean(2, d.desired() == SlotStatus.AVAILABLE);
+            ps.setLong(3, d.slotId());
+            ps.setString(4, d.current().name());
+        });
+        List<SlotStatusDrift> applied = new ArrayList<>();
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int c : batch) {
+                if (c != 0) {
+                    applied.add(drifts.get(i));
+                }
+                i++;
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Streams every slot dated between {@code from} and {@code to} to
+     * {@code consumer}, ordered by doctor, date and start time. Run inside a
+     * transaction so the PostgreSQL driver fetches with a cursor instead of
+     * buffering the whole range.
+     */
+    public void scan(LocalDate from, LocalDate to, Consumer<SlotState> consumer) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SCAN_SQL);
+            ps.setFetchSize(SCAN_FETCH_SIZE);
+            ps.setObject(1, from);
+            ps.setObject(2, to);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(new SlotState(
+                rs.getLong("id"),
+                rs.getLong("doctor_id"),
+                rs.getObject("date", LocalDate.class),
+                rs.getObject("start_time", LocalTime.class),
+                rs.getObject("end_time", LocalTime.class),
+                SlotStatus.valueOf(rs.getString("status")))));
+    }
+
+    private String upsertSql() {
+        String sql = upsertSql;
+        if (sql == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+            if ("PostgreSQL".equalsIgnoreCase(product)) {
+                sql = POSTGRES_UPSERT_SQL;
+            } else if ("H2".equalsIgnoreCase(product)) {
+                sql = H2_UPSERT_SQL;
+            } else {
+                log.warn("No slot upsert statement for database '{}', falling back to row-by-row inserts", product);
+                sql = "";
+            }
+            upsertSql = sql;
+        }
+        return sql.isEmpty() ? null : sql;
+    }
+
+    /**
+     * A stored slot as read by {@link #scan}.
+     */
+    public record SlotState(Long slotId, Long doctorId, LocalDate date, LocalTime startTime, LocalTime endTime,
+            SlotStatus status) {
+    }
+
+    /**
+     * A slot whose stored status differs from the one its appointments imply.
+     */
+    public record SlotStatusDrift(Long slotId, Long doctorId, LocalDate date, SlotStatus current,
+            SlotStatus desired) {
+    }
+
+    /**
+     * A slot row to be written; mirrors the columns of the slots table.
+     */
+    public record SlotRow(Long doctorId, LocalDate date, LocalTime startTime, LocalTime endTime, boolean available) {
+
+        /**
+         * Rows are generated unavailable only where an existing appointment
+         * already occupies the time.
+         */
+        public SlotStatus status() {
+            return available ? SlotStatus.AVAILABLE : SlotStatus.BOOKED;
+        }
+    }
+}
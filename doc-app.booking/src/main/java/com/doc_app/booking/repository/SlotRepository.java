@@ -1,14 +1,23 @@
 package com.doc_app.booking.repository;
 
 import com.doc_app.booking.model.Slot;
+import com.doc_app.booking.model.SlotStatus;
+import com.doc_app.booking.repository.projection.DayAvailabilityView;
+import com.doc_app.booking.repository.projection.SlotStatusView;
+import com.doc_app.booking.repository.projection.SlotKeyView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,7 +29,113 @@ public interface SlotRepository extends JpaRepository<Slot, Long> {
 
     List<Slot> findByDoctorId(Long doctorId);
 
+    List<Slot> findByDoctorIdAndDateGreaterThanEqual(Long doctorId, LocalDate date);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT a FROM Slot a WHERE a.id = ?1")
     Optional<Slot> findByIdForUpdate(Long id);
+
+    // changes to the returned slot are never flushed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT a FROM Slot a WHERE a.id = ?1")
+    Optional<Slot> findReadOnlyById(Long id);
+
+    /**
+     * Claims the slot for a booking in one statement.
+     *
+     * @return 1 if the slot was AVAILABLE and now has {@code status}, 0 if it
+     *         was taken or blocked
+     */
+    @Modifying
+    @Query("UPDATE Slot s SET s.status = ?2, s.available = false "
+            + "WHERE s.id = ?1 AND s.status = com.doc_app.booking.model.SlotStatus.AVAILABLE")
+    int claimIfAvailable(Long slotId, SlotStatus status);
+
+    // callers hold the rows (findAllByIdForUpdate) and have checked they are AVAILABLE
+    @Modifying
+    @Query("UPDATE Slot s SET s.status = ?2, s.available = false WHERE s.id IN ?1")
+    int claimAll(Collection<Long> slotIds, SlotStatus status);
+
+    // rows are locked in id order, so overlapping batches queue up instead of deadlocking
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Slot s WHERE s.id IN ?1 ORDER BY s.id")
+    List<Slot> findAllByIdForUpdate(Collection<Long> ids);
+
+    // held slots whose hold was dropped, on a day the doctor has since taken off
+    @Modifying
+    @Query("UPDATE Slot s SET s.status = com.doc_app.booking.model.SlotStatus.BLOCKED "
+            + "WHERE s.id IN ?1 AND s.status = com.doc_app.booking.model.SlotStatus.HELD "
+            + "AND NOT EXISTS (SELECT a.id FROM Appointment a WHERE a.slot.id = s.id AND a.status IN "
+            + "(com.doc_app.booking.model.AppointmentStatus.RESERVED, "
+            + "com.doc_app.booking.model.AppointmentStatus.SCHEDULED)) "
+            + "AND EXISTS (SELECT l.id FROM DoctorLeave l WHERE l.doctor.id = s.doctor.id AND l.date = s.date "
+            + "AND l.active = true)")
+    int blockReleasedOnLeave(Collection<Long> slotIds);
+
+    // held slots left without a live appointment go back on offer
+    @Modifying
+    @Query("UPDATE Slot s SET s.status = com.doc_app.booking.model.SlotStatus.AVAILABLE, s.available = true "
+            + "WHERE s.id IN ?1 AND s.status = com.doc_app.booking.model.SlotStatus.HELD "
+            + "AND NOT EXISTS (SELECT a.id FROM Appointment a WHERE a.slot.id = s.id AND a.status IN "
+            + "(com.doc_app.booking.model.AppointmentStatus.RESERVED, "
+            + "com.doc_app.booking.model.AppointmentStatus.SCHEDULED))")
+    int releaseHeld(Collection<Long> slotIds);
+
+    @Query("SELECT s.doctor.id AS doctorId, s.date AS date, s.startTime AS startTime FROM Slot s "
+            + "WHERE s.doctor.id IN ?1 AND s.date BETWEEN ?2 AND ?3")
+    List<SlotKeyView> findKeysByDoctorIdsAndDateBetween(Collection<Long> doctorIds, LocalDate start, LocalDate end);
+
+    @Modifying
+    @Query("UPDATE Slot s SET s.available = false, s.retired = true, "
+            + "s.status = com.doc_app.booking.model.SlotStatus.BLOCKED WHERE s.id IN ?1")
+    int retire(Collection<Long> slotIds);
+
+    /**
+     * The doctor's slots on a date with their booking status, ordered by start time.
+     */
+    @Query("SELECT s.id AS slotId, s.date AS date, s.startTime AS startTime, s.endTime AS endTime, "
+            + "s.status AS status FROM Slot s WHERE s.doctor.id = ?1 AND s.date = ?2 ORDER BY s.startTime")
+    List<SlotStatusView> findStatusByDoctorIdAndDate(Long doctorId, LocalDate date);
+
+    /**
+     * The doctor's slots that have not ended before {@code now} on
+     * {@code today}, ordered by date and start time. Served in index order by
+     * uk_slots_doctor_date_start (doctor_id, date, start_time).
+     */
+    @Query("SELECT s.id AS slotId, s.date AS date, s.startTime AS startTime, s.endTime AS endTime, "
+            + "s.status AS status FROM Slot s "
+            + "WHERE s.doctor.id = ?1 AND (s.date > ?2 OR (s.date = ?2 AND s.endTime > ?3)) "
+            + "ORDER BY s.date, s.startTime")
+    List<SlotStatusView> findUpcomingStatusByDoctorId(Long doctorId, LocalDate today, LocalTime now);
+
+    @Modifying
+    @Query("UPDATE Slot s SET s.available = false, s.status = com.doc_app.booking.model.SlotStatus.BLOCKED "
+            + "WHERE s.doctor.id = ?1 AND s.date BETWEEN ?2 AND ?3 "
+            + "AND s.status = com.doc_app.booking.model.SlotStatus.AVAILABLE")
+    int blockSlots(Long doctorId, LocalDate start, LocalDate end);
+
+    @Modifying
+    @Query("UPDATE Slot s SET s.available = true, s.status = com.doc_app.booking.model.SlotStatus.AVAILABLE "
+            + "WHERE s.doctor.id = ?1 AND s.date BETWEEN ?2 AND ?3 AND s.retired = false "
+            + "AND s.status = com.doc_app.booking.model.SlotStatus.BLOCKED")
+    int reopenSlots(Long doctorId, LocalDate start, LocalDate end);
+
+    @Modifying
+    @Query("UPDATE Slot s SET s.available = true, s.status = com.doc_app.booking.model.SlotStatus.AVAILABLE "
+            + "WHERE s.doctor.id = ?1 AND s.date IN ?2 AND s.retired = false "
+            + "AND s.status = com.doc_app.booking.model.SlotStatus.BLOCKED")
+    int reopenSlotsOn(Long doctorId, Collection<LocalDate> dates);
+
+    /**
+     * Per-day total/free counts and first free start time between start and end,
+     * ignoring slots on {@code today} that already ended before {@code now}.
+     */
+    @Query("SELECT s.date AS date, COUNT(s) AS total, "
+            + "SUM(CASE WHEN s.available = true THEN 1 ELSE 0 END) AS free, "
+            + "MIN(CASE WHEN s.available = true THEN s.startTime ELSE NULL END) AS firstFree "
+            + "FROM Slot s WHERE s.doctor.id = ?1 AND s.date BETWEEN ?2 AND ?3 "
+            + "AND (s.date > ?4 OR s.endTime > ?5) "
+            + "GROUP BY s.date ORDER BY s.date")
+    List<DayAvailabilityView> summarizeByDate(Long doctorId, LocalDate start, LocalDate end, LocalDate today,
+            LocalTime now);
 }
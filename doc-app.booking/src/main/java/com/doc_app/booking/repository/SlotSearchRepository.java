@@ -0,0 +1,120 @@
+package com.doc_app.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Set-based "earliest free slot" queries across doctors. Each query is a single
+ * statement over slots joined with doctors and hospitals; the per-doctor
+ * minimum is picked with a ROW_NUMBER window, which PostgreSQL and H2 both
+ * support.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SlotSearchRepository {
+
+    private static final String DOCTOR_COLUMNS = "d.id AS doctor_id, d.first_name, d.last_name, d.specialization, "
+            + "h.id AS hospital_id, h.name AS hospital_name, h.latitude, h.longitude";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Doctor filter shared by the queries. Null fields are not applied; the
+     * bounding box is a cheap pre-filter for a distance search.
+     */
+    public record DoctorFilter(String specialization, Long hospitalId, BigDecimal minLatitude,
+            BigDecimal maxLatitude, BigDecimal minLongitude, BigDecimal maxLongitude) {
+    }
+
+    public record DoctorRow(Long doctorId, String firstName, String lastName, String specialization,
+            Long hospitalId, String hospitalName, BigDecimal latitude, BigDecimal longitude) {
+    }
+
+    public record EarliestSlotRow(DoctorRow doctor, Long slotId, LocalDate date, LocalTime startTime,
+            LocalTime endTime) {
+    }
+
+    /**
+     * Earliest available slot per matching doctor between {@code from} and
+     * {@code to}, skipping slots on {@code from} that start before
+     * {@code notBefore}. Rows are ordered by slot start; {@code limit <= 0}
+     * means no limit.
+     */
+    public List<EarliestSlotRow> findEarliestFreeSlots(DoctorFilter filter, LocalDate from, LocalTime notBefore,
+            LocalDate to, int limit) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder()
+                .append("SELECT * FROM (SELECT s.id AS slot_id, s.date, s.start_time, s.end_time, ")
+                .append(DOCTOR_COLUMNS)
+                .append(", ROW_NUMBER() OVER (PARTITION BY s.doctor_id ORDER BY s.date, s.start_time) AS rn ")
+                .append("FROM slots s JOIN doctors d ON d.id = s.doctor_id ")
+                .append("LEFT JOIN hospitals h ON h.id = d.hospital_id ")
+                .append("WHERE s.available = TRUE AND s.date BETWEEN ? AND ? AND (s.date > ? OR s.start_time >= ?)");
+        args.add(Date.valueOf(from));
+        args.add(Date.valueOf(to));
+        args.add(Date.valueOf(from));
+        args.add(Time.valueOf(notBefore));
+        appendDoctorFilter(sql, args, filter);
+        sql.append(") x WHERE x.rn = 1 ORDER BY x.date, x.start_time, x.doctor_id");
+        if (limit > 0) {
+            sql.append(" LIMIT ?");
+            args.add(limit);
+        }
+        RowMapper<EarliestSlotRow> mapper = (rs, i) -> new EarliestSlotRow(mapDoctor(rs),
+                rs.getLong("slot_id"), rs.getDate("date").toLocalDate(), rs.getTime("start_time").toLocalTime(),
+                rs.getTime("end_time").toLocalTime());
+        return jdbcTemplate.query(sql.toString(), mapper, args.toArray());
+    }
+
+    /**
+     * Doctors matching the filter, for template-based (VIRTUAL mode) searches.
+     */
+    public List<DoctorRow> findDoctors(DoctorFilter filter) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder()
+                .append("SELECT ").append(DOCTOR_COLUMNS)
+                .append(" FROM doctors d LEFT JOIN hospitals h ON h.id = d.hospital_id WHERE 1 = 1");
+        appendDoctorFilter(sql, args, filter);
+        return jdbcTemplate.query(sql.toString(), (rs, i) -> mapDoctor(rs), args.toArray());
+    }
+
+    private static void appendDoctorFilter(StringBuilder sql, List<Object> args, DoctorFilter filter) {
+        if (filter.specialization() != null) {
+            sql.append(" AND LOWER(d.specialization) = LOWER(?)");
+            args.add(filter.specialization());
+        }
+        if (filter.hospitalId() != null) {
+            sql.append(" AND d.hospital_id = ?");
+            args.add(filter.hospitalId());
+        }
+        if (filter.minLatitude() != null) {
+            sql.append(" AND h.latitude BETWEEN ? AND ? AND h.longitude BETWEEN ? AND ?");
+            args.add(filter.minLatitude());
+            args.add(filter.maxLatitude());
+            args.add(filter.minLongitude());
+            args.add(filter.maxLongitude());
+        }
+    }
+
+    private static DoctorRow mapDoctor(ResultSet rs) throws SQLException {
+        Long hospitalId = rs.getLong("hospital_id");
+        if (rs.wasNull()) {
+            hospitalId = null;
+        }
+        return new DoctorRow(rs.getLong("doctor_id"), rs.getString("first_name"), rs.getString("last_name"),
+                rs.getString("specialization"), hospitalId, rs.getString("hospital_name"),
+                rs.getBigDecimal("latitude"), rs.getBigDecimal("longitude"));
+    }
+}
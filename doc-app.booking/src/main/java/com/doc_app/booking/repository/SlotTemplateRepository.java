@@ -3,9 +3,11 @@ package com.doc_app.booking.repository;
 import com.doc_app.booking.model.Doctor;
 import com.doc_app.booking.model.SlotTemplate;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.DayOfWeek;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -13,4 +15,9 @@ public interface SlotTemplateRepository extends JpaRepository<SlotTemplate, Long
     List<SlotTemplate> findByDoctorAndDayOfWeek(Doctor doctor, DayOfWeek dayOfWeek);
 
     List<SlotTemplate> findByDoctor(Doctor doctor);
+
+    List<SlotTemplate> findByDoctor_IdAndDayOfWeekAndActiveTrue(Long doctorId, DayOfWeek dayOfWeek);
+
+    @Query("SELECT t FROM SlotTemplate t WHERE t.active = true AND t.doctor.id IN ?1")
+    List<SlotTemplate> findActiveByDoctorIds(Collection<Long> doctorIds);
 }
@@ -0,0 +1,17 @@
+package com.doc_app.booking.repository.projection;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Per-day slot counts of one doctor, aggregated in the database.
+ */
+public interface DayAvailabilityView {
+    LocalDate getDate();
+
+    Long getTotal();
+
+    Long getFree();
+
+    LocalTime getFirstFree();
+}
@@ -0,0 +1,13 @@
+package com.doc_app.booking.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of an appointment's doctor and start time, used to mark occupied
+ * slots without loading Appointment entities.
+ */
+public interface DoctorAppointmentTimeView {
+    Long getDoctorId();
+
+    LocalDateTime getAppointmentDateTime();
+}
@@ -0,0 +1,12 @@
+package com.doc_app.booking.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Projection of a (doctor, date) pair, e.g. an active leave day.
+ */
+public interface DoctorDateView {
+    Long getDoctorId();
+
+    LocalDate getDate();
+}
@@ -0,0 +1,13 @@
+package com.doc_app.booking.repository.projection;
+
+import java.time.LocalDate;
+
+public interface ExpiredHoldView {
+    Long getAppointmentId();
+
+    Long getSlotId();
+
+    Long getDoctorId();
+
+    LocalDate getDate();
+}
@@ -0,0 +1,16 @@
+package com.doc_app.booking.repository.projection;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Lightweight projection identifying a materialized slot without hydrating the
+ * Slot entity.
+ */
+public interface SlotKeyView {
+    Long getDoctorId();
+
+    LocalDate getDate();
+
+    LocalTime getStartTime();
+}
@@ -0,0 +1,21 @@
+package com.doc_app.booking.repository.projection;
+
+import com.doc_app.booking.model.SlotStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * A slot together with its booking status.
+ */
+public interface SlotStatusView {
+    Long getSlotId();
+
+    LocalDate getDate();
+
+    LocalTime getStartTime();
+
+    LocalTime getEndTime();
+
+    SlotStatus getStatus();
+}
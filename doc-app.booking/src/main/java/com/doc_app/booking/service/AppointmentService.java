@@ -2,6 +2,7 @@ package com.doc_app.booking.service;
 
 import com.doc_app.booking.dto.AppointmentDTO;
 import com.doc_app.booking.dto.PageResponse;
+import com.doc_app.booking.dto.request.BatchAppointmentRequest;
 import com.doc_app.booking.dto.request.CreateAppointmentRequest;
 import com.doc_app.booking.dto.request.UpdateAppointmentRequest;
 import com.doc_app.booking.dto.request.AppointmentStatusUpdateRequest;
@@ -15,6 +16,24 @@ public interface AppointmentService {
 
     AppointmentDTO createAppointment(CreateAppointmentRequest request);
 
+    /**
+     * Holds the request's slot as a RESERVED appointment for {@code minutes}
+     * (booking.hold-minutes if null). Unconfirmed holds are released when they
+     * expire.
+     */
+    AppointmentDTO holdSlot(CreateAppointmentRequest request, Integer minutes);
+
+    /**
+     * Turns an unexpired hold into a SCHEDULED appointment, attaching the
+     * patient with {@code patientPhone} if given.
+     */
+    AppointmentDTO confirmHold(Long id, String patientPhone);
+
+    /**
+     * Books every slot of the request in one transaction, or none of them.
+     */
+    List<AppointmentDTO> createAppointments(BatchAppointmentRequest request);
+
     AppointmentDTO updateAppointment(Long id, UpdateAppointmentRequest request);
 
     AppointmentDTO updateAppointmentStatus(Long id, AppointmentStatusUpdateRequest request);
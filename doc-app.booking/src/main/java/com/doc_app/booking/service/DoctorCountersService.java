@@ -0,0 +1,13 @@
+package com.doc_app.booking.service;
+
+import com.doc_app.booking.dto.DoctorDayCountersDTO;
+
+public interface DoctorCountersService {
+
+    /**
+     * Free slots and appointments per status for the doctor today, read with
+     * aggregate queries and never triggering slot generation. Results may be
+     * served from a short-lived cache (slots.cache.counters-ttl-seconds).
+     */
+    DoctorDayCountersDTO getTodayCounters(Long doctorId);
+}
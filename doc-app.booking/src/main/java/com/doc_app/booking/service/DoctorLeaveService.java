@@ -1,14 +1,33 @@
 package com.doc_app.booking.service;
 
+import com.doc_app.booking.dto.response.DoctorLeaveResponse;
 import com.doc_app.booking.model.DoctorLeave;
 
 import java.time.LocalDate;
 import java.util.List;
 
 public interface DoctorLeaveService {
-    DoctorLeave createLeave(Long doctorId, LocalDate date, String reason);
+    /**
+     * Creates a leave day, blocks the doctor's slots on that day and returns the
+     * appointments that need to be rebooked.
+     */
+    DoctorLeaveResponse createLeave(Long doctorId, LocalDate date, String reason);
+
+    /**
+     * Same as {@link #createLeave} for every day between start and end
+     * (inclusive). Days already on leave are skipped.
+     */
+    List<DoctorLeaveResponse> createLeaves(Long doctorId, LocalDate start, LocalDate end, String reason);
 
     void deleteLeave(Long id);
 
+    /**
+     * Removes all leave days between start and end (inclusive) and reopens the
+     * unbooked slots on those days.
+     *
+     * @return number of leave days removed
+     */
+    int deleteLeaves(Long doctorId, LocalDate start, LocalDate end);
+
     List<DoctorLeave> getLeavesForDoctor(Long doctorId);
 }
@@ -0,0 +1,23 @@
+package com.doc_app.booking.service;
+
+import com.doc_app.booking.dto.EarliestSlotDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SlotSearchService {
+
+    /**
+     * Search filters. Null fields are ignored; a location search needs
+     * latitude, longitude and radiusKm.
+     */
+    record Criteria(String specialization, Long hospitalId, Double latitude, Double longitude, Double radiusKm,
+            LocalDate from, int days, int limit) {
+    }
+
+    /**
+     * The earliest free slot of each matching doctor within the search window,
+     * ordered by slot start.
+     */
+    List<EarliestSlotDTO> findEarliestAvailable(Criteria criteria);
+}
@@ -1,8 +1,11 @@
 package com.doc_app.booking.service;
 
+import com.doc_app.booking.dto.DayAvailabilityDTO;
 import com.doc_app.booking.dto.SlotDTO;
+import com.doc_app.booking.dto.SlotHistoryPageDTO;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface SlotService {
@@ -15,5 +18,35 @@ public interface SlotService {
 
     List<SlotDTO> getAvailableSlots(Long doctorId, LocalDate date);
 
-    List<SlotDTO> getAllSlots(Long doctorId);
+    /**
+     * One keyset page of the doctor's slots dated between {@code from} and
+     * {@code to}, archived ones included, ordered by start. {@code after} is the
+     * previous page's cursor (null for the first page).
+     */
+    SlotHistoryPageDTO getSlotHistory(Long doctorId, LocalDate from, LocalDate to, LocalDateTime after, int size);
+
+    /**
+     * The doctor's slots on {@code date} that have not ended yet, ordered by
+     * start time. Empty for past dates.
+     */
+    List<SlotDTO> getUpcomingSlots(Long doctorId, LocalDate date);
+
+    /**
+     * All of the doctor's slots that have not ended yet, ordered by date and
+     * start time.
+     */
+    List<SlotDTO> getUpcomingSlots(Long doctorId);
+
+    /**
+     * Per-day total and free slot counts plus the first free start time for
+     * {@code days} days starting at {@code from}. Slots that already ended today
+     * are not counted.
+     */
+    List<DayAvailabilityDTO> getAvailabilitySummary(Long doctorId, LocalDate from, int days);
+
+    /**
+     * Ensures a slot row exists for the template slot starting at {@code start}
+     * and returns its id. Used when booking in VIRTUAL availability mode.
+     */
+    Long materializeSlot(Long doctorId, LocalDateTime start);
 }
@@ -0,0 +1,435 @@
+package com.doc_app.booking.service.bench;
+
+import com.doc_app.booking.config.BookingBenchProperties;
+import com.doc_app.booking.config.BookingProperties;
+import com.doc_app.booking.dto.request.CreateAppointmentRequest;
+import com.doc_app.booking.exception.SlotAlreadyBookedException;
+import com.doc_app.booking.model.Doctor;
+import com.doc_app.booking.model.Patient;
+import com.doc_app.booking.model.Slot;
+import com.doc_app.booking.model.SlotStatus;
+import com.doc_app.booking.repository.DoctorRepository;
+import com.doc_app.booking.repository.PatientRepository;
+import com.doc_app.booking.repository.SlotRepository;
+import com.doc_app.booking.service.AppointmentService;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Booking contention benchmark: booking.bench.clients concurrent clients book
+ * booking.bench.slots slots of one doctor through
+ * {@link AppointmentService#createAppointment}, once per configured booking
+ * strategy. Every round checks that each slot got exactly one winner, both from
+ * the clients' outcomes and from the database, and logs throughput, p50/p99
+ * latency and lock-wait time.
+ * <p>
+ * Runs only under the {@code bench} profile and only against the dedicated
+ * database named by booking.bench.datasource-url (H2 with
+ * {@code --spring.profiles.active=test,bench}, or PostgreSQL with
+ * {@code --spring.profiles.active=bench}); it refuses to start on any other
+ * connection. Each run creates a throwaway doctor and patient with generated
+ * identities and removes them, with their slots and appointments, when it
+ * ends. The slots of the benchmark day (booking.bench.days-ahead) are reset
+ * before every round.
+ * <p>
+ * The clients run on booking.bench.threads threads and the connection pool is
+ * resized to match (plus one connection for the lock-wait sampler), so time
+ * spent waiting for a pooled connection does not count as contention.
+ * <p>
+ * Lock-wait time is sampled, not traced: every booking.bench.lock-sample-millis
+ * the sessions blocked on a lock are counted (pg_stat_activity on PostgreSQL,
+ * INFORMATION_SCHEMA.SESSIONS on H2), so it is the summed waiting time of all
+ * clients at that resolution. The sampler holds one pooled connection for the
+ * round.
+ */
+@Component
+@Profile("bench")
+@Slf4j
+public class BookingContentionBenchmark implements ApplicationRunner {
+
+    private static final int SLOT_MINUTES = 10;
+    private static final int MAX_SLOTS = 24 * 60 / SLOT_MINUTES;
+
+    private static final String POSTGRES_LOCK_WAITERS = "SELECT COUNT(*) FROM pg_stat_activity "
+            + "WHERE datname = current_database() AND wait_event_type = 'Lock'";
+    private static final String H2_LOCK_WAITERS = "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS "
+            + "WHERE BLOCKER_ID IS NOT NULL";
+
+    private final AppointmentService appointmentService;
+    private final BookingProperties bookingProperties;
+    private final BookingBenchProperties properties;
+    private final DoctorRepository doctorRepository;
+    private final PatientRepository patientRepository;
+    private final SlotRepository slotRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final TransactionTemplate transaction;
+    private final ConfigurableApplicationContext context;
+
+    public BookingContentionBenchmark(AppointmentService appointmentService, BookingProperties bookingProperties,
+            BookingBenchProperties properties, DoctorRepository doctorRepository,
+            PatientRepository patientRepository, SlotRepository slotRepository, JdbcTemplate jdbcTemplate,
+            DataSource dataSource, PlatformTransactionManager transactionManager,
+            ConfigurableApplicationContext context) {
+        this.appointmentService = appointmentService;
+        this.bookingProperties = bookingProperties;
+        this.properties = properties;
+        this.doctorRepository = doctorRepository;
+        this.patientRepository = patientRepository;
+        this.slotRepository = slotRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        int slots = properties.getSlots();
+        if (slots < 1 || slots > MAX_SLOTS || properties.getClients() < slots) {
+            throw new IllegalArgumentException("booking.bench.slots must be between 1 and " + MAX_SLOTS
+                    + " and not exceed booking.bench.clients");
+        }
+        if (properties.getThreads() < 1 || properties.getThreads() > properties.getClients()) {
+            throw new IllegalArgumentException("booking.bench.threads must be between 1 and booking.bench.clients");
+        }
+        requireBenchDatabase();
+        sizePool(properties.getThreads() + 1);
+
+        String identity = "bench-" + UUID.randomUUID().toString().replace("-", "").substring(0, 14);
+        Long doctorId = transaction.execute(status -> benchDoctor(identity).getId());
+        Long patientId = transaction.execute(status -> benchPatient(identity).getId());
+        LocalDate date = LocalDate.now().plusDays(properties.getDaysAhead());
+        log.info("Booking benchmark: {} clients on {} threads, {} slots of doctor {} on {}, strategies {}",
+                properties.getClients(), properties.getThreads(), slots, doctorId, date, properties.getStrategies());
+
+        BookingProperties.Strategy configured = bookingProperties.getStrategy();
+        boolean correct = true;
+        try {
+            for (BookingProperties.Strategy strategy : properties.getStrategies()) {
+                bookingProperties.setStrategy(strategy);
+                for (int round = 0; round < properties.getWarmupRounds() + properties.getRounds(); round++) {
+                    RoundResult result = runRound(doctorId, identity, date);
+                    correct &= result.failures().isEmpty();
+                    if (round < properties.getWarmupRounds()) {
+                        log.info("Booking benchmark {} warm-up {}: {}", strategy, round + 1,
+                                result.failures().isEmpty() ? "ok" : result.failures());
+                    } else {
+                        log.info("Booking benchmark {} round {}: {}", strategy,
+                                round - properties.getWarmupRounds() + 1, result);
+                    }
+                }
+            }
+        } finally {
+            bookingProperties.setStrategy(configured);
+            transaction.executeWithoutResult(status -> removeFixture(doctorId, patientId));
+        }
+
+        if (!correct) {
+            throw new IllegalStateException(
+                    "Booking benchmark: one-winner-per-slot violated, see the FAILED rounds above");
+        }
+        log.info("Booking benchmark: every round had exactly one winner per slot");
+        if (properties.isCloseWhenDone()) {
+            context.close();
+        }
+    }
+
+    // the configured connection must be the one named by booking.bench.datasource-url
+    private void requireBenchDatabase() throws SQLException {
+        String expected = properties.getDatasourceUrl();
+        if (expected == null || expected.isBlank()) {
+            throw new IllegalStateException("booking.bench.datasource-url must name a dedicated benchmark database");
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            String actual = connection.getMetaData().getURL();
+            if (!expected.equalsIgnoreCase(actual)) {
+                throw new IllegalStateException("Booking benchmark refuses to run on " + actual
+                        + ", which is not booking.bench.datasource-url (" + expected + ")");
+            }
+        }
+    }
+
+    private void sizePool(int size) throws SQLException {
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+            pool.getHikariConfigMXBean().setMaximumPoolSize(size);
+            log.info("Booking benchmark: connection pool resized to {}", size);
+        } else {
+            log.warn("Booking benchmark: not a Hikari pool, make sure it allows {} connections", size);
+        }
+    }
+
+    private RoundResult runRound(Long doctorId, String patientPhone, LocalDate date) throws Exception {
+        List<Slot> slots = transaction.execute(status -> resetSlots(doctorId, date));
+        int clients = properties.getClients();
+        long[] latencies = new long[clients];
+        AtomicIntegerArray wins = new AtomicIntegerArray(slots.size());
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(clients);
+
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getThreads(),
+                new CustomizableThreadFactory("booking-bench-"));
+        try (LockWaitSampler sampler = new LockWaitSampler()) {
+            for (int i = 0; i < clients; i++) {
+                int client = i;
+                int slotIndex = i % slots.size();
+                CreateAppointmentRequest request = bookingRequest(doctorId, patientPhone, slots.get(slotIndex));
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        long began = System.nanoTime();
+                        try {
+                            appointmentService.createAppointment(request);
+                            wins.incrementAndGet(slotIndex);
+                        } catch (SlotAlreadyBookedException e) {
+                            conflicts.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            errors.incrementAndGet();
+                            log.warn("Booking benchmark: client {} failed: {}", client, e.toString());
+                        }
+                        latencies[client] = System.nanoTime() - began;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        errors.incrementAndGet();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+
+            sampler.start();
+            long began = System.nanoTime();
+            start.countDown();
+            done.await();
+            long elapsed = System.nanoTime() - began;
+            long lockWaitMillis = sampler.stop();
+
+            Arrays.sort(latencies);
+            List<String> failures = verify(doctorId, slots, wins, errors.get());
+            return new RoundResult(clients, slots.size(), conflicts.get(), errors.get(),
+                    clients / (elapsed / 1e9), percentileMillis(latencies, 0.50), percentileMillis(latencies, 0.99),
+                    lockWaitMillis, failures);
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Checks one winner per slot as seen by the clients, and one appointment
+     * per slot and a BOOKED status as stored.
+     */
+    private List<String> verify(Long doctorId, List<Slot> slots, AtomicIntegerArray wins, int errors) {
+        List<String> failures = new ArrayList<>();
+        for (int i = 0; i < slots.size(); i++) {
+            if (wins.get(i) != 1) {
+                failures.add("slot " + slots.get(i).getId() + " had " + wins.get(i) + " winners");
+            }
+        }
+        if (errors > 0) {
+            failures.add(errors + " clients failed with an unexpected error");
+        }
+
+        Map<Long, Integer> appointments = new HashMap<>();
+        jdbcTemplate.query("SELECT slot_id, COUNT(*) FROM appointments WHERE doctor_id = ? GROUP BY slot_id",
+                (ResultSet rs) -> {
+                    appointments.put(rs.getLong(1), rs.getInt(2));
+                }, doctorId);
+        for (Slot slot : slots) {
+            int stored = appointments.getOrDefault(slot.getId(), 0);
+            if (stored != 1) {
+                failures.add("slot " + slot.getId() + " has " + stored + " appointments");
+            }
+        }
+        Integer booked = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM slots WHERE doctor_id = ? AND status = ?", Integer.class, doctorId,
+                SlotStatus.BOOKED.name());
+        if (booked == null || booked != slots.size()) {
+            failures.add(booked + " of " + slots.size() + " slots are BOOKED");
+        }
+        return failures;
+    }
+
+    private CreateAppointmentRequest bookingRequest(Long doctorId, String patientPhone, Slot slot) {
+        CreateAppointmentRequest request = new CreateAppointmentRequest();
+        request.setDoctorId(doctorId);
+        request.setPatientPhone(patientPhone);
+        request.setSlotId(slot.getId());
+        request.setAppointmentDateTime(LocalDateTime.of(slot.getDate(), slot.getStartTime()));
+        request.setNotes("booking benchmark");
+        return request;
+    }
+
+    // drops the previous round's appointments and slots and creates fresh AVAILABLE ones
+    private List<Slot> resetSlots(Long doctorId, LocalDate date) {
+        deleteBookings(doctorId);
+
+        Doctor doctor = doctorRepository.getReferenceById(doctorId);
+        List<Slot> slots = new ArrayList<>(properties.getSlots());
+        for (int i = 0; i < properties.getSlots(); i++) {
+            LocalTime startTime = LocalTime.MIN.plusMinutes((long) i * SLOT_MINUTES);
+            Slot slot = new Slot();
+            slot.setDoctor(doctor);
+            slot.setDate(date);
+            slot.setStartTime(startTime);
+            slot.setEndTime(startTime.plusMinutes(SLOT_MINUTES));
+            slot.setStatus(SlotStatus.AVAILABLE);
+            slots.add(slot);
+        }
+        return slotRepository.saveAll(slots);
+    }
+
+    private void deleteBookings(Long doctorId) {
+        jdbcTemplate.update("DELETE FROM notifications WHERE appointment_id IN "
+                + "(SELECT id FROM appointments WHERE doctor_id = ?)", doctorId);
+        jdbcTemplate.update("DELETE FROM appointments WHERE doctor_id = ?", doctorId);
+        jdbcTemplate.update("DELETE FROM slots WHERE doctor_id = ?", doctorId);
+    }
+
+    private void removeFixture(Long doctorId, Long patientId) {
+        deleteBookings(doctorId);
+        jdbcTemplate.update("DELETE FROM slot_generation_watermarks WHERE doctor_id = ?", doctorId);
+        jdbcTemplate.update("DELETE FROM patients WHERE id = ?", patientId);
+        jdbcTemplate.update("DELETE FROM doctors WHERE id = ?", doctorId);
+    }
+
+    // identity is unique per run, so the fixture never matches a real doctor or patient
+    private Doctor benchDoctor(String identity) {
+        Doctor doctor = new Doctor();
+        doctor.setFirstName("Bench");
+        doctor.setLastName("Doctor");
+        doctor.setEmail(identity + "@bench.invalid");
+        doctor.setContact(identity);
+        doctor.setSpecialization("Benchmark");
+        return doctorRepository.save(doctor);
+    }
+
+    private Patient benchPatient(String identity) {
+        Patient patient = new Patient();
+        patient.setFirstName("Bench");
+        patient.setLastName("Patient");
+        patient.setPhoneNumber(identity);
+        return patientRepository.save(patient);
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1e6;
+    }
+
+    record RoundResult(int clients, int slots, int conflicts, int errors, double bookingsPerSecond,
+            double p50Millis, double p99Millis, long lockWaitMillis, List<String> failures) {
+
+        @Override
+        public String toString() {
+            String lockWait = lockWaitMillis < 0 ? "n/a" : lockWaitMillis + " ms";
+            return String.format("%d clients / %d slots, %d conflicts, %d errors | %.0f req/s, p50 %.2f ms, "
+                    + "p99 %.2f ms, lock wait %s | %s", clients, slots, conflicts, errors, bookingsPerSecond,
+                    p50Millis, p99Millis, lockWait, failures.isEmpty() ? "OK" : "FAILED " + failures);
+        }
+    }
+
+    /**
+     * Counts sessions blocked on a lock at a fixed interval on a dedicated
+     * connection. Reports -1 on databases it has no query for.
+     */
+    private final class LockWaitSampler implements AutoCloseable {
+
+        private final AtomicLong waitingSamples = new AtomicLong();
+        private Connection connection;
+        private Thread thread;
+        private volatile boolean running;
+
+        void start() throws SQLException {
+            connection = dataSource.getConnection();
+            String product = connection.getMetaData().getDatabaseProductName();
+            String sql = switch (product) {
+                case "PostgreSQL" -> POSTGRES_LOCK_WAITERS;
+                case "H2" -> H2_LOCK_WAITERS;
+                default -> null;
+            };
+            if (sql == null) {
+                log.info("Booking benchmark: no lock-wait query for {}", product);
+                return;
+            }
+            running = true;
+            thread = new CustomizableThreadFactory("booking-bench-locks-").newThread(() -> sample(sql));
+            thread.start();
+        }
+
+        private void sample(String sql) {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                while (running) {
+                    try (ResultSet rs = statement.executeQuery()) {
+                        if (rs.next()) {
+                            waitingSamples.addAndGet(rs.getLong(1));
+                        }
+                    }
+                    Thread.sleep(properties.getLockSampleMillis());
+                }
+            } catch (SQLException e) {
+                log.warn("Booking benchmark: lock-wait sampling stopped: {}", e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Stops sampling and returns the estimated lock-wait time, or -1.
+         */
+        long stop() throws InterruptedException {
+            if (thread == null) {
+                return -1;
+            }
+            running = false;
+            thread.join();
+            thread = null;
+            return waitingSamples.get() * properties.getLockSampleMillis();
+        }
+
+        @Override
+        public void close() throws Exception {
+            if (thread != null) {
+                running = false;
+                thread.join();
+            }
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
+}
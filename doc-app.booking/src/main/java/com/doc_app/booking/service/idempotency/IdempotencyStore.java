@@ -0,0 +1,179 @@
+package com.doc_app.booking.service.idempotency;
+
+import com.doc_app.booking.config.BookingProperties;
+import com.doc_app.booking.exception.BusinessException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the responses of POST requests sent with an {@code Idempotency-Key}
+ * header for booking.idempotency-ttl-minutes, so a client retrying after a lost
+ * response gets the original response back instead of booking again. Keys are
+ * scoped to the caller and the request path; reusing a key for a different
+ * request body (compared by a SHA-256 digest of its JSON) is rejected.
+ * <p>
+ * A retry that arrives while the original is still running waits for it, up
+ * to booking.idempotency-wait-seconds, and gets 409 after that. A request that
+ * fails with an exception is not remembered, so its retry runs again.
+ * Responses are kept per instance, in memory.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final BookingProperties properties;
+
+    // map keys sorted so equal bodies always serialize to the same bytes
+    private final ObjectWriter canonicalWriter;
+
+    // insertion order, which is close enough to expiry order to evict from the head
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    private final AtomicLong stored = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+
+    public IdempotencyStore(BookingProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.canonicalWriter = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+    }
+
+    /**
+     * Runs {@code action} once per idempotency key and returns its response,
+     * or the stored response of an earlier request with the same key. Without
+     * a key the action simply runs.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> execute(HttpServletRequest httpRequest, String idempotencyKey, Object body,
+            Supplier<ResponseEntity<T>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException(HEADER + " must not be longer than " + MAX_KEY_LENGTH + " characters");
+        }
+        String key = httpRequest.getAttribute("userId") + " " + httpRequest.getMethod() + " "
+                + httpRequest.getRequestURI() + " " + idempotencyKey;
+        byte[] fingerprint = fingerprint(body);
+
+        Entry mine = new Entry(fingerprint);
+        Entry existing;
+        long now = System.nanoTime();
+        synchronized (entries) {
+            evictExpired(now);
+            existing = entries.putIfAbsent(key, mine);
+        }
+        if (existing != null) {
+            return (ResponseEntity<T>) replay(existing, fingerprint);
+        }
+
+        try {
+            ResponseEntity<T> response = action.get();
+            synchronized (entries) {
+                mine.expiresAt = System.nanoTime() + TimeUnit.MINUTES.toNanos(properties.getIdempotencyTtlMinutes());
+            }
+            mine.response.complete(response);
+            stored.incrementAndGet();
+            return response;
+        } catch (RuntimeException e) {
+            synchronized (entries) {
+                entries.remove(key, mine);
+            }
+            mine.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private ResponseEntity<?> replay(Entry entry, byte[] fingerprint) {
+        if (!MessageDigest.isEqual(entry.fingerprint, fingerprint)) {
+            throw new BusinessException(HEADER + " was already used for a different request", 422);
+        }
+        ResponseEntity<?> original;
+        try {
+            original = entry.response.get(properties.getIdempotencyWaitSeconds(), TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            throw new BusinessException("A request with this " + HEADER + " is still being processed", 409);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("A request with this " + HEADER + " is still being processed", 409);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        replayed.incrementAndGet();
+        return ResponseEntity.status(original.getStatusCode())
+                .headers(original.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(original.getBody());
+    }
+
+    // drops expired responses, and the oldest ones beyond the cap, from the head; in-flight
+    // entries (expiresAt 0) are skipped rather than ending the walk, there are only as many
+    // of them as concurrent requests
+    private void evictExpired(long now) {
+        int maxEntries = Math.max(1, properties.getIdempotencyMaxEntries());
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.expiresAt == 0) {
+                continue;
+            }
+            if (entry.expiresAt - now > 0 && entries.size() <= maxEntries) {
+                break;
+            }
+            it.remove();
+        }
+    }
+
+    private byte[] fingerprint(Object body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(canonicalWriter.writeValueAsBytes(body));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint the request body", e);
+        }
+    }
+
+    public Stats getStats() {
+        synchronized (entries) {
+            return new Stats(entries.size(), stored.get(), replayed.get());
+        }
+    }
+
+    public record Stats(int size, long stored, long replayed) {
+    }
+
+    private static final class Entry {
+        private final byte[] fingerprint;
+        private final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+        // 0 while the original request is running; guarded by the entries lock
+        private long expiresAt;
+
+        private Entry(byte[] fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
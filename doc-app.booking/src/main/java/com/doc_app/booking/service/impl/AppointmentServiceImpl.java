@@ -1,7 +1,11 @@
 package com.doc_app.booking.service.impl;
 
+import com.doc_app.booking.config.BookingProperties;
+import com.doc_app.booking.config.SlotsGeneratorProperties;
 import com.doc_app.booking.dto.AppointmentDTO;
+import com.doc_app.booking.dto.DoctorDayCountersDTO;
 import com.doc_app.booking.dto.PageResponse;
+import com.doc_app.booking.dto.request.BatchAppointmentRequest;
 import com.doc_app.booking.dto.request.CreateAppointmentRequest;
 import com.doc_app.booking.dto.request.UpdateAppointmentRequest;
 import com.doc_app.booking.dto.request.AppointmentStatusUpdateRequest;
@@ -9,26 +13,40 @@ import com.doc_app.booking.dto.mapper.EntityMapper;
 import com.doc_app.booking.model.Appointment;
 import com.doc_app.booking.model.Doctor;
 import com.doc_app.booking.model.Patient;
+import com.doc_app.booking.model.Slot;
+import com.doc_app.booking.model.SlotStatus;
 import com.doc_app.booking.model.AppointmentStatus;
+import com.doc_app.booking.repository.AppointmentJdbcRepository;
 import com.doc_app.booking.repository.AppointmentRepository;
+import com.doc_app.booking.repository.DoctorLeaveRepository;
 import com.doc_app.booking.repository.DoctorRepository;
 import com.doc_app.booking.repository.PatientRepository;
 import com.doc_app.booking.service.AppointmentService;
+import com.doc_app.booking.service.DoctorCountersService;
 import com.doc_app.booking.service.PatientService;
+import com.doc_app.booking.service.SlotService;
+import com.doc_app.booking.service.slot.SlotAvailabilityChangedEvent;
 import jakarta.persistence.EntityNotFoundException;
+import com.doc_app.booking.exception.BusinessException;
 import com.doc_app.booking.exception.SlotAlreadyBookedException;
 import com.doc_app.booking.exception.PatientNotFoundException;
 import com.doc_app.booking.exception.DoctorNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -40,22 +58,23 @@ public class AppointmentServiceImpl implements AppointmentService {
     @Override
     @Transactional(readOnly = true)
     public long countTodaysAppointmentsByDoctor(Long doctorId, AppointmentStatus status) {
-        LocalDateTime start = LocalDateTime.now().toLocalDate().atStartOfDay();
-        LocalDateTime end = start.plusDays(1);
-        if (status != null) {
-            return appointmentRepository.findByDoctorIdAndAppointmentDateTimeBetween(doctorId, start, end)
-                    .stream().filter(a -> a.getStatus() == status).count();
-        } else {
-            return appointmentRepository.findByDoctorIdAndAppointmentDateTimeBetween(doctorId, start, end).size();
-        }
+        DoctorDayCountersDTO counters = doctorCountersService.getTodayCounters(doctorId);
+        return status != null ? counters.getAppointmentsByStatus().get(status) : counters.getTotalAppointments();
     }
 
     private final AppointmentRepository appointmentRepository;
+    private final AppointmentJdbcRepository appointmentJdbcRepository;
     private final DoctorRepository doctorRepository;
     private final PatientRepository patientRepository;
     private final PatientService patientService;
     private final EntityMapper mapper;
     private final com.doc_app.booking.repository.SlotRepository slotRepository;
+    private final SlotService slotService;
+    private final SlotsGeneratorProperties generatorProperties;
+    private final BookingProperties bookingProperties;
+    private final DoctorLeaveRepository doctorLeaveRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DoctorCountersService doctorCountersService;
 
     @Override
     public AppointmentDTO createAppointment(CreateAppointmentRequest request) {
@@ -77,30 +96,15 @@ public class AppointmentServiceImpl implements AppointmentService {
             }
         }
 
-        // If slotId is provided, lock the slot and book it
-        if (request.getSlotId() != null) {
-            var slotOpt = slotRepository.findByIdForUpdate(request.getSlotId());
-            var slot = slotOpt.orElseThrow(() -> new IllegalArgumentException("Slot not found"));
-            if (!slot.isAvailable()) {
-                throw new SlotAlreadyBookedException("Slot already booked");
-            }
-
-            // mark slot unavailable and save
-            slot.setAvailable(false);
-            slotRepository.save(slot);
+        // VIRTUAL availability: slots only get a row once booked, so create it now
+        if (request.getSlotId() == null && generatorProperties.isVirtual()) {
+            request.setSlotId(slotService.materializeSlot(doctor.getId(), request.getAppointmentDateTime()));
+        }
 
-            // create appointment at slot start, link slot
-            Appointment appointment = mapper.toAppointment(request);
-            appointment.setDoctor(doctor);
-            appointment.setSlot(slot);
-            appointment.setAppointmentDateTime(LocalDateTime.of(slot.getDate(), slot.getStartTime()));
-            if (patient != null) {
-                appointment.setPatient(patient);
-            }
-            // Set status to RESERVED if no patient, else SCHEDULED
-            appointment.setStatus(isReserved ? AppointmentStatus.RESERVED : AppointmentStatus.SCHEDULED);
-            appointment = appointmentRepository.save(appointment);
-            return mapper.toAppointmentDTO(appointment);
+        // If slotId is provided, claim the slot and book it
+        if (request.getSlotId() != null) {
+            AppointmentStatus status = isReserved ? AppointmentStatus.RESERVED : AppointmentStatus.SCHEDULED;
+            return bookSlot(request, doctor, patient, status, null);
         }
 
         // fallback: legacy behavior using appointmentDateTime
@@ -116,9 +120,204 @@ public class AppointmentServiceImpl implements AppointmentService {
         // Set status to RESERVED if no patient, else SCHEDULED
         appointment.setStatus(isReserved ? AppointmentStatus.RESERVED : AppointmentStatus.SCHEDULED);
         appointment = appointmentRepository.save(appointment);
+        publishAvailabilityChanged(appointment, "booking");
+        return mapper.toAppointmentDTO(appointment);
+    }
+
+    /**
+     * Loads the doctor and patient once, locks all slots with one SELECT ...
+     * FOR UPDATE in ascending id order (so overlapping batches cannot
+     * deadlock), claims them with one UPDATE and inserts the appointments in
+     * one JDBC batch. Any unavailable slot fails the whole batch.
+     */
+    @Override
+    public List<AppointmentDTO> createAppointments(BatchAppointmentRequest request) {
+        Doctor doctor = doctorRepository.findById(request.getDoctorId())
+                .orElseThrow(() -> new DoctorNotFoundException(request.getDoctorId()));
+        Patient patient = null;
+        boolean isReserved = request.isReserved();
+        if (!isReserved) {
+            patient = patientRepository.findByPhoneNumber(request.getPatientPhone())
+                    .orElseThrow(() -> new PatientNotFoundException(request.getPatientPhone()));
+        }
+
+        List<Long> slotIds = new ArrayList<>(request.getItems().size());
+        for (BatchAppointmentRequest.Item item : request.getItems()) {
+            // VIRTUAL availability: slots only get a row once booked, so create it now
+            if (item.getSlotId() == null && item.getAppointmentDateTime() != null
+                    && generatorProperties.isVirtual()) {
+                item.setSlotId(slotService.materializeSlot(doctor.getId(), item.getAppointmentDateTime()));
+            }
+            if (item.getSlotId() == null) {
+                throw new BusinessException("Every appointment of a batch needs a slotId");
+            }
+            slotIds.add(item.getSlotId());
+        }
+        List<Long> lockOrder = slotIds.stream().distinct().sorted().toList();
+        if (lockOrder.size() != slotIds.size()) {
+            throw new BusinessException("A slot can only be booked once per batch");
+        }
+
+        Map<Long, Slot> slots = slotRepository.findAllByIdForUpdate(lockOrder).stream()
+                .collect(Collectors.toMap(Slot::getId, Function.identity()));
+        for (Long slotId : lockOrder) {
+            Slot slot = slots.get(slotId);
+            if (slot == null || !slot.getDoctor().getId().equals(doctor.getId())) {
+                throw new IllegalArgumentException("Slot not found: " + slotId);
+            }
+            if (slot.getStatus() != SlotStatus.AVAILABLE) {
+                throw new SlotAlreadyBookedException("Slot already booked: " + slotId);
+            }
+        }
+        AppointmentStatus status = isReserved ? AppointmentStatus.RESERVED : AppointmentStatus.SCHEDULED;
+        SlotStatus claimed = SlotStatus.of(status);
+        slotRepository.claimAll(lockOrder, claimed);
+
+        List<Appointment> appointments = new ArrayList<>(slotIds.size());
+        for (BatchAppointmentRequest.Item item : request.getItems()) {
+            Slot slot = slots.get(item.getSlotId());
+            Appointment appointment = new Appointment();
+            appointment.setDoctor(doctor);
+            appointment.setPatient(patient);
+            appointment.setSlot(slot);
+            appointment.setAppointmentDateTime(LocalDateTime.of(slot.getDate(), slot.getStartTime()));
+            appointment.setAppointeeName(item.getAppointeeName());
+            appointment.setAppointeeAge(item.getAppointeeAge());
+            appointment.setAppointeePhone(item.getAppointeePhone());
+            appointment.setAppointeeGender(item.getAppointeeGender());
+            appointment.setNotes(item.getNotes());
+            appointment.setStatus(status);
+            appointments.add(appointment);
+        }
+        appointmentJdbcRepository.insertAll(appointments);
+
+        Set<LocalDate> dates = slots.values().stream().map(Slot::getDate).collect(Collectors.toSet());
+        Map<Long, SlotStatus> slotStatuses = lockOrder.stream()
+                .collect(Collectors.toMap(Function.identity(), slotId -> claimed));
+        eventPublisher.publishEvent(new SlotAvailabilityChangedEvent(doctor.getId(), Set.copyOf(dates),
+                "batch booking", Map.copyOf(slotStatuses)));
+        return appointments.stream().map(mapper::toAppointmentDTO).collect(Collectors.toList());
+    }
+
+    @Override
+    public AppointmentDTO holdSlot(CreateAppointmentRequest request, Integer minutes) {
+        int holdMinutes = minutes != null ? minutes : bookingProperties.getHoldMinutes();
+        if (holdMinutes < 1 || holdMinutes > bookingProperties.getMaxHoldMinutes()) {
+            throw new BusinessException("Hold must last between 1 and " + bookingProperties.getMaxHoldMinutes()
+                    + " minutes");
+        }
+        Doctor doctor = doctorRepository.findById(request.getDoctorId())
+                .orElseThrow(() -> new DoctorNotFoundException(request.getDoctorId()));
+        Patient patient = null;
+        if (request.getPatientPhone() != null && !request.getPatientPhone().isBlank()) {
+            patient = patientRepository.findByPhoneNumber(request.getPatientPhone())
+                    .orElseThrow(() -> new PatientNotFoundException(request.getPatientPhone()));
+        }
+        return bookSlot(request, doctor, patient, AppointmentStatus.RESERVED,
+                LocalDateTime.now().plusMinutes(holdMinutes));
+    }
+
+    @Override
+    public AppointmentDTO confirmHold(Long id, String patientPhone) {
+        // the row lock orders this against the hold sweeper, which skips holds that are no longer RESERVED
+        Appointment appointment = appointmentRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new EntityNotFoundException("Appointment not found with id: " + id));
+        if (appointment.getStatus() == AppointmentStatus.CANCELLED) {
+            throw new BusinessException("Hold has expired or was cancelled", 410);
+        }
+        if (appointment.getStatus() != AppointmentStatus.RESERVED || appointment.getHoldExpiresAt() == null) {
+            throw new BusinessException("Appointment " + id + " is not a slot hold", 409);
+        }
+        if (!appointment.getHoldExpiresAt().isAfter(LocalDateTime.now())) {
+            throw new BusinessException("Hold has expired or was cancelled", 410);
+        }
+
+        if (patientPhone != null && !patientPhone.isBlank()) {
+            Patient patient = patientRepository.findByPhoneNumber(patientPhone)
+                    .orElseThrow(() -> new PatientNotFoundException(patientPhone));
+            if (appointment.getPatient() != null && !appointment.getPatient().getId().equals(patient.getId())) {
+                throw new BusinessException("Hold belongs to another patient", 403);
+            }
+            appointment.setPatient(patient);
+        }
+        if (appointment.getPatient() == null) {
+            throw new BusinessException("A patient is required to confirm a hold");
+        }
+
+        updateSlotStatus(appointment.getSlot(), AppointmentStatus.RESERVED, AppointmentStatus.SCHEDULED);
+        appointment.setStatus(AppointmentStatus.SCHEDULED);
+        appointment.setHoldExpiresAt(null);
+        appointment = appointmentRepository.save(appointment);
+        publishAvailabilityChanged(appointment, "hold confirmed");
+        return mapper.toAppointmentDTO(appointment);
+    }
+
+    // holdExpiresAt is null for a booking, set for a time-limited hold
+    private AppointmentDTO bookSlot(CreateAppointmentRequest request, Doctor doctor, Patient patient,
+            AppointmentStatus status, LocalDateTime holdExpiresAt) {
+        return bookingProperties.isOptimistic()
+                ? bookSlotOptimistically(request, doctor, patient, status, holdExpiresAt)
+                : bookSlotLocked(request, doctor, patient, status, holdExpiresAt);
+    }
+
+    private AppointmentDTO bookSlotLocked(CreateAppointmentRequest request, Doctor doctor, Patient patient,
+            AppointmentStatus status, LocalDateTime holdExpiresAt) {
+        var slotOpt = slotRepository.findByIdForUpdate(request.getSlotId());
+        var slot = slotOpt.orElseThrow(() -> new IllegalArgumentException("Slot not found"));
+        if (slot.getStatus() != SlotStatus.AVAILABLE) {
+            throw new SlotAlreadyBookedException("Slot already booked");
+        }
+
+        // mark slot held/booked and save
+        slot.setStatus(SlotStatus.of(status));
+        slotRepository.save(slot);
+
+        Appointment appointment = appointmentRepository.save(newSlotAppointment(request, doctor, patient, slot,
+                status, holdExpiresAt));
+        publishAvailabilityChanged(appointment, holdExpiresAt != null ? "hold" : "booking");
         return mapper.toAppointmentDTO(appointment);
     }
 
+    /**
+     * No lock while the appointment is built and inserted: the slot is claimed
+     * by the last statement, a conditional UPDATE, so its row is only locked
+     * from there to commit. Losing the race rolls the appointment back.
+     */
+    private AppointmentDTO bookSlotOptimistically(CreateAppointmentRequest request, Doctor doctor, Patient patient,
+            AppointmentStatus status, LocalDateTime holdExpiresAt) {
+        Slot slot = slotRepository.findReadOnlyById(request.getSlotId())
+                .orElseThrow(() -> new IllegalArgumentException("Slot not found"));
+        if (slot.getStatus() != SlotStatus.AVAILABLE) {
+            throw new SlotAlreadyBookedException("Slot already booked");
+        }
+
+        Appointment appointment = appointmentRepository.save(newSlotAppointment(request, doctor, patient, slot,
+                status, holdExpiresAt));
+        SlotStatus claimed = SlotStatus.of(status);
+        if (slotRepository.claimIfAvailable(slot.getId(), claimed) == 0) {
+            throw new SlotAlreadyBookedException("Slot already booked");
+        }
+        // read-only instance: keeps the event and response in line without another UPDATE
+        slot.setStatus(claimed);
+        publishAvailabilityChanged(appointment, holdExpiresAt != null ? "hold" : "booking");
+        return mapper.toAppointmentDTO(appointment);
+    }
+
+    // appointment at the slot's start, linked to the slot
+    private Appointment newSlotAppointment(CreateAppointmentRequest request, Doctor doctor, Patient patient,
+            Slot slot, AppointmentStatus status, LocalDateTime holdExpiresAt) {
+        Appointment appointment = mapper.toAppointment(request);
+        appointment.setDoctor(doctor);
+        appointment.setSlot(slot);
+        appointment.setAppointmentDateTime(LocalDateTime.of(slot.getDate(), slot.getStartTime()));
+        if (patient != null) {
+            appointment.setPatient(patient);
+        }
+        appointment.setStatus(status);
+        appointment.setHoldExpiresAt(holdExpiresAt);
+        return appointment;
+    }
+
     @Override
     public AppointmentDTO updateAppointment(Long id, UpdateAppointmentRequest request) {
         Appointment appointment = appointmentRepository.findById(id)
@@ -130,8 +329,22 @@ public class AppointmentServiceImpl implements AppointmentService {
             throw new IllegalStateException("Doctor is not available at the requested time");
         }
 
+        LocalDateTime previousDateTime = appointment.getAppointmentDateTime();
+        Slot previousSlot = appointment.getSlot();
         mapper.updateAppointment(appointment, request);
+        if (previousSlot != null && !appointment.getAppointmentDateTime().equals(previousDateTime)) {
+            moveToSlotAt(appointment);
+        }
         appointment = appointmentRepository.save(appointment);
+        if (previousSlot != null && previousSlot != appointment.getSlot()) {
+            eventPublisher.publishEvent(SlotAvailabilityChangedEvent.forSlot(previousSlot.getDoctor().getId(),
+                    previousSlot.getDate(), previousSlot.getId(), previousSlot.getStatus(), "reschedule"));
+        } else if (previousDateTime != null && !previousDateTime.toLocalDate()
+                .equals(appointment.getAppointmentDateTime().toLocalDate())) {
+            eventPublisher.publishEvent(SlotAvailabilityChangedEvent.forDay(appointment.getDoctor().getId(),
+                    previousDateTime.toLocalDate(), "reschedule"));
+        }
+        publishAvailabilityChanged(appointment, "reschedule");
         return mapper.toAppointmentDTO(appointment);
     }
 
@@ -140,7 +353,13 @@ public class AppointmentServiceImpl implements AppointmentService {
         Appointment appointment = appointmentRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Appointment not found with id: " + id));
 
+        if (appointment.getSlot() != null && appointment.getStatus() != request.getStatus()) {
+            updateSlotStatus(appointment.getSlot(), appointment.getStatus(), request.getStatus());
+        }
         appointment.setStatus(request.getStatus());
+        if (request.getStatus() != AppointmentStatus.RESERVED) {
+            appointment.setHoldExpiresAt(null);
+        }
         if (request.getNotes() != null) {
             appointment.setNotes(request.getNotes());
         }
@@ -151,6 +370,7 @@ public class AppointmentServiceImpl implements AppointmentService {
         }
 
         appointment = appointmentRepository.save(appointment);
+        publishAvailabilityChanged(appointment, "status " + request.getStatus());
         return mapper.toAppointmentDTO(appointment);
     }
 
@@ -188,7 +408,74 @@ public class AppointmentServiceImpl implements AppointmentService {
     public void deleteAppointment(Long id) {
         Appointment appointment = appointmentRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Appointment not found with id: " + id));
+        if (appointment.getSlot() != null && appointment.getStatus() != AppointmentStatus.CANCELLED) {
+            releaseSlot(lockSlot(appointment.getSlot()));
+        }
         appointmentRepository.delete(appointment);
+        publishAvailabilityChanged(appointment, "deletion");
+    }
+
+    /**
+     * Moves the slot's status along with its appointment's status change. A
+     * cancelled appointment can only come back if nobody else took the slot.
+     */
+    private void updateSlotStatus(Slot slot, AppointmentStatus from, AppointmentStatus to) {
+        slot = lockSlot(slot);
+        if (to == AppointmentStatus.CANCELLED) {
+            releaseSlot(slot);
+            return;
+        }
+        if (from == AppointmentStatus.CANCELLED && slot.getStatus() != SlotStatus.AVAILABLE) {
+            throw new SlotAlreadyBookedException("Slot already booked");
+        }
+        slot.setStatus(SlotStatus.of(to));
+    }
+
+    /**
+     * Reschedule of a slot-based appointment: the old slot is released and the
+     * slot starting at the new time (if the doctor has one) is taken over.
+     * Without a slot at the new time the appointment continues as a time-only one.
+     */
+    private void moveToSlotAt(Appointment appointment) {
+        boolean holdsSlot = appointment.getStatus() != AppointmentStatus.CANCELLED;
+        if (holdsSlot) {
+            releaseSlot(lockSlot(appointment.getSlot()));
+        }
+        LocalDateTime start = appointment.getAppointmentDateTime();
+        Slot target = slotRepository.findByDoctorIdAndDateAndStartTime(appointment.getDoctor().getId(),
+                start.toLocalDate(), start.toLocalTime())
+                .map(this::lockSlot)
+                .orElse(null);
+        if (target != null && holdsSlot) {
+            if (target.getStatus() != SlotStatus.AVAILABLE) {
+                throw new SlotAlreadyBookedException("Slot already booked");
+            }
+            target.setStatus(SlotStatus.of(appointment.getStatus()));
+        }
+        appointment.setSlot(target);
+    }
+
+    // a released slot stays closed if the day has since become a leave day
+    private void releaseSlot(Slot slot) {
+        boolean onLeave = doctorLeaveRepository.existsByDoctor_IdAndDateAndActiveTrue(slot.getDoctor().getId(),
+                slot.getDate());
+        slot.setStatus(onLeave ? SlotStatus.BLOCKED : SlotStatus.AVAILABLE);
+    }
+
+    private Slot lockSlot(Slot slot) {
+        return slotRepository.findByIdForUpdate(slot.getId()).orElse(slot);
+    }
+
+    // cached availability of the appointment's doctor-day is dropped once this transaction commits
+    private void publishAvailabilityChanged(Appointment appointment, String reason) {
+        Slot slot = appointment.getSlot();
+        if (slot != null) {
+            eventPublisher.publishEvent(SlotAvailabilityChangedEvent.forSlot(appointment.getDoctor().getId(),
+                    slot.getDate(), slot.getId(), slot.getStatus(), reason));
+            return;
+        }
+        eventPublisher.publishEvent(SlotAvailabilityChangedEvent.forDay(appointment.getDoctor().getId(),
+                appointment.getAppointmentDateTime().toLocalDate(), reason));
     }
 
     @Override
@@ -0,0 +1,105 @@
+package com.doc_app.booking.service.impl;
+
+import com.doc_app.booking.config.AvailabilityCacheProperties;
+import com.doc_app.booking.config.SlotsGeneratorProperties;
+import com.doc_app.booking.dto.DoctorDayCountersDTO;
+import com.doc_app.booking.model.AppointmentStatus;
+import com.doc_app.booking.repository.AppointmentRepository;
+import com.doc_app.booking.repository.DoctorCountersRepository;
+import com.doc_app.booking.service.DoctorCountersService;
+import com.doc_app.booking.service.slot.DaySchedule;
+import com.doc_app.booking.service.slot.SlotAvailabilityChangedEvent;
+import com.doc_app.booking.service.slot.VirtualSlotCalculator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class DoctorCountersServiceImpl implements DoctorCountersService {
+
+    private static final List<AppointmentStatus> BOOKED_STATUSES = List.of(
+            AppointmentStatus.SCHEDULED,
+            AppointmentStatus.COMPLETED,
+            AppointmentStatus.RESERVED);
+
+    private final DoctorCountersRepository countersRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final VirtualSlotCalculator virtualSlotCalculator;
+    private final SlotsGeneratorProperties generatorProperties;
+    private final AvailabilityCacheProperties cacheProperties;
+
+    // one entry per polled doctor, replaced when stale or when the doctor's availability changes
+    private final Map<Long, CachedCounters> cache = new ConcurrentHashMap<>();
+
+    @Override
+    public DoctorDayCountersDTO getTodayCounters(Long doctorId) {
+        LocalDate today = LocalDate.now();
+        long ttlNanos = TimeUnit.SECONDS.toNanos(cacheProperties.getCountersTtlSeconds());
+        if (ttlNanos > 0) {
+            CachedCounters cached = cache.get(doctorId);
+            if (cached != null && cached.counters().getDate().equals(today)
+                    && System.nanoTime() - cached.loadedAt() < ttlNanos) {
+                return cached.counters();
+            }
+        }
+        long loadedAt = System.nanoTime();
+        DoctorDayCountersDTO counters = load(doctorId, today);
+        if (ttlNanos > 0) {
+            cache.put(doctorId, new CachedCounters(counters, loadedAt));
+        }
+        return counters;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(SlotAvailabilityChangedEvent event) {
+        cache.remove(event.doctorId());
+    }
+
+    private DoctorDayCountersDTO load(Long doctorId, LocalDate date) {
+        Map<String, Long> counts = countersRepository.countDay(doctorId, date);
+
+        Map<AppointmentStatus, Long> byStatus = new EnumMap<>(AppointmentStatus.class);
+        long total = 0;
+        for (AppointmentStatus status : AppointmentStatus.values()) {
+            long count = counts.getOrDefault(status.name(), 0L);
+            byStatus.put(status, count);
+            total += count;
+        }
+
+        long freeSlots;
+        if (generatorProperties.isVirtual()) {
+            // VIRTUAL mode only stores booked slots, so free slots come from the templates
+            DaySchedule schedule = virtualSlotCalculator.computeSchedule(doctorId, date);
+            schedule.occupyAll(appointmentRepository.findAppointmentTimes(List.of(doctorId), date.atStartOfDay(),
+                    date.atTime(LocalTime.MAX), BOOKED_STATUSES).stream()
+                    .map(a -> a.getAppointmentDateTime().toLocalTime())
+                    .collect(Collectors.toList()));
+            freeSlots = schedule.freeCount();
+        } else {
+            freeSlots = counts.getOrDefault(DoctorCountersRepository.FREE_SLOTS, 0L);
+        }
+
+        DoctorDayCountersDTO dto = new DoctorDayCountersDTO();
+        dto.setDoctorId(doctorId);
+        dto.setDate(date);
+        dto.setFreeSlots(freeSlots);
+        dto.setTotalAppointments(total);
+        dto.setAppointmentsByStatus(byStatus);
+        return dto;
+    }
+
+    private record CachedCounters(DoctorDayCountersDTO counters, long loadedAt) {
+    }
+}
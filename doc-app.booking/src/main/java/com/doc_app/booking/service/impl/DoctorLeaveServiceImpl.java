@@ -1,42 +1,151 @@
 package com.doc_app.booking.service.impl;
 
+import com.doc_app.booking.dto.AppointmentDTO;
+import com.doc_app.booking.dto.mapper.EntityMapper;
+import com.doc_app.booking.dto.response.DoctorLeaveResponse;
+import com.doc_app.booking.exception.BusinessException;
+import com.doc_app.booking.model.AppointmentStatus;
 import com.doc_app.booking.model.Doctor;
 import com.doc_app.booking.model.DoctorLeave;
+import com.doc_app.booking.repository.AppointmentRepository;
 import com.doc_app.booking.repository.DoctorLeaveRepository;
 import com.doc_app.booking.repository.DoctorRepository;
+import com.doc_app.booking.repository.SlotGenerationWatermarkRepository;
+import com.doc_app.booking.repository.SlotRepository;
+import com.doc_app.booking.repository.projection.DoctorDateView;
 import com.doc_app.booking.service.DoctorLeaveService;
+import com.doc_app.booking.service.slot.SlotAvailabilityChangedEvent;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Slf4j
 public class DoctorLeaveServiceImpl implements DoctorLeaveService {
 
+    // appointments that must be rebooked when their day becomes a leave day
+    private static final List<AppointmentStatus> AFFECTED_STATUSES = List.of(
+            AppointmentStatus.SCHEDULED,
+            AppointmentStatus.RESERVED);
+
     private final DoctorLeaveRepository leaveRepository;
     private final DoctorRepository doctorRepository;
+    private final SlotRepository slotRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final SlotGenerationWatermarkRepository watermarkRepository;
+    private final EntityMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public DoctorLeaveResponse createLeave(Long doctorId, LocalDate date, String reason) {
+        List<DoctorLeaveResponse> created = createLeaves(doctorId, date, date, reason);
+        if (created.isEmpty()) {
+            throw new BusinessException("Doctor is already on leave on " + date, 409);
+        }
+        return created.get(0);
+    }
 
     @Override
-    public DoctorLeave createLeave(Long doctorId, LocalDate date, String reason) {
+    public List<DoctorLeaveResponse> createLeaves(Long doctorId, LocalDate start, LocalDate end, String reason) {
+        if (end.isBefore(start)) {
+            throw new BusinessException("End date must not be before start date");
+        }
         Doctor doc = doctorRepository.findById(doctorId)
                 .orElseThrow(() -> new EntityNotFoundException("Doctor not found"));
-        DoctorLeave leave = new DoctorLeave();
-        leave.setDoctor(doc);
-        leave.setDate(date);
-        leave.setReason(reason);
-        leave.setActive(true);
-        return leaveRepository.save(leave);
+
+        Set<LocalDate> alreadyOnLeave = leaveRepository.findActiveLeaveDays(List.of(doctorId), start, end).stream()
+                .map(DoctorDateView::getDate)
+                .collect(Collectors.toSet());
+        List<DoctorLeave> leaves = new ArrayList<>();
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+            if (alreadyOnLeave.contains(date)) {
+                continue;
+            }
+            DoctorLeave leave = new DoctorLeave();
+            leave.setDoctor(doc);
+            leave.setDate(date);
+            leave.setReason(reason);
+            leave.setActive(true);
+            leaves.add(leave);
+        }
+        if (leaves.isEmpty()) {
+            return List.of();
+        }
+        leaves = leaveRepository.saveAll(leaves);
+
+        // one set-based update closes every materialized slot in the range
+        int blocked = slotRepository.blockSlots(doctorId, start, end);
+        log.info("Leave for doctor {} from {} to {} blocked {} slots", doctorId, start, end, blocked);
+        watermarkRepository.reset(doctorId);
+        eventPublisher.publishEvent(SlotAvailabilityChangedEvent.forDays(doctorId,
+                leaves.stream().map(DoctorLeave::getDate).collect(Collectors.toSet()), "leave"));
+
+        Map<LocalDate, List<AppointmentDTO>> affected = appointmentRepository
+                .findByDoctorIdAndDateRangeAndStatusIn(doctorId, start.atStartOfDay(), end.atTime(LocalTime.MAX),
+                        AFFECTED_STATUSES)
+                .stream()
+                .collect(Collectors.groupingBy(a -> a.getAppointmentDateTime().toLocalDate(),
+                        Collectors.mapping(mapper::toAppointmentDTO, Collectors.toList())));
+
+        return leaves.stream()
+                .map(l -> new DoctorLeaveResponse(l.getId(), doctorId, l.getDate(), l.getReason(),
+                        affected.getOrDefault(l.getDate(), List.of())))
+                .collect(Collectors.toList());
     }
 
     @Override
     public void deleteLeave(Long id) {
         var l = leaveRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Leave not found"));
+        Long doctorId = l.getDoctor().getId();
+        LocalDate date = l.getDate();
         leaveRepository.delete(l);
+        leaveRepository.flush();
+        // days skipped while on leave have no slots yet; the next nightly run fills them in
+        watermarkRepository.reset(doctorId);
+        eventPublisher.publishEvent(SlotAvailabilityChangedEvent.forDay(doctorId, date, "leave removed"));
+        if (!leaveRepository.existsByDoctor_IdAndDateAndActiveTrue(doctorId, date)) {
+            int reopened = slotRepository.reopenSlots(doctorId, date, date);
+            log.info("Leave {} for doctor {} on {} removed, reopened {} slots", id, doctorId, date, reopened);
+        }
+    }
+
+    @Override
+    public int deleteLeaves(Long doctorId, LocalDate start, LocalDate end) {
+        if (end.isBefore(start)) {
+            throw new BusinessException("End date must not be before start date");
+        }
+        List<DoctorLeave> leaves = leaveRepository.findByDoctor_IdAndDateBetween(doctorId, start, end);
+        if (leaves.isEmpty()) {
+            return 0;
+        }
+        leaveRepository.deleteAllInBatch(leaves);
+        watermarkRepository.reset(doctorId);
+        Set<LocalDate> removedDays = leaves.stream().map(DoctorLeave::getDate)
+                .collect(Collectors.toCollection(HashSet::new));
+        eventPublisher.publishEvent(SlotAvailabilityChangedEvent.forDays(doctorId, removedDays, "leave removed"));
+
+        // only the removed days reopen, and only when no other active leave still covers them
+        removedDays.removeAll(leaveRepository.findActiveLeaveDays(List.of(doctorId), start, end).stream()
+                .map(DoctorDateView::getDate)
+                .collect(Collectors.toSet()));
+        int reopened = removedDays.isEmpty() ? 0 : slotRepository.reopenSlotsOn(doctorId, removedDays);
+        log.info("Removed {} leave days for doctor {} from {} to {}, reopened {} slots", leaves.size(), doctorId,
+                start, end, reopened);
+        return leaves.size();
     }
 
     @Override
@@ -10,8 +10,10 @@ import com.doc_app.booking.model.Hospital;
 import com.doc_app.booking.repository.DoctorRepository;
 import com.doc_app.booking.repository.HospitalRepository;
 import com.doc_app.booking.service.DoctorService;
+import com.doc_app.booking.service.version.DoctorProfileChangedEvent;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -29,6 +31,7 @@ public class DoctorServiceImpl implements DoctorService {
         private final DoctorRepository doctorRepository;
         private final HospitalRepository hospitalRepository;
         private final EntityMapper mapper;
+        private final ApplicationEventPublisher eventPublisher;
 
         @Override
         public DoctorDTO createDoctor(CreateDoctorRequest request) {
@@ -62,6 +65,7 @@ public class DoctorServiceImpl implements DoctorService {
 
                 mapper.updateDoctor(doctor, request);
                 doctor = doctorRepository.save(doctor);
+                eventPublisher.publishEvent(new DoctorProfileChangedEvent(id));
                 return mapper.toDoctorDTO(doctor);
         }
 
@@ -145,6 +149,7 @@ public class DoctorServiceImpl implements DoctorService {
                 Doctor doctor = doctorRepository.findById(id)
                                 .orElseThrow(() -> new EntityNotFoundException("Doctor not found with id: " + id));
                 doctorRepository.delete(doctor);
+                eventPublisher.publishEvent(new DoctorProfileChangedEvent(id));
         }
 
         @Override
@@ -0,0 +1,225 @@
+package com.doc_app.booking.service.impl;
+
+import com.doc_app.booking.config.SlotsGeneratorProperties;
+import com.doc_app.booking.dto.EarliestSlotDTO;
+import com.doc_app.booking.exception.BusinessException;
+import com.doc_app.booking.model.AppointmentStatus;
+import com.doc_app.booking.model.SlotTemplate;
+import com.doc_app.booking.repository.AppointmentRepository;
+import com.doc_app.booking.repository.DoctorLeaveRepository;
+import com.doc_app.booking.repository.SlotSearchRepository;
+import com.doc_app.booking.repository.SlotSearchRepository.DoctorFilter;
+import com.doc_app.booking.repository.SlotSearchRepository.DoctorRow;
+import com.doc_app.booking.repository.SlotSearchRepository.EarliestSlotRow;
+import com.doc_app.booking.repository.SlotTemplateRepository;
+import com.doc_app.booking.repository.projection.DoctorAppointmentTimeView;
+import com.doc_app.booking.repository.projection.DoctorDateView;
+import com.doc_app.booking.service.SlotSearchService;
+import com.doc_app.booking.service.slot.DaySchedule;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class SlotSearchServiceImpl implements SlotSearchService {
+
+    private static final int MAX_DAYS = 30;
+    private static final int MAX_LIMIT = 100;
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private static final List<AppointmentStatus> BOOKED_STATUSES = List.of(
+            AppointmentStatus.SCHEDULED,
+            AppointmentStatus.COMPLETED,
+            AppointmentStatus.RESERVED);
+
+    private final SlotSearchRepository searchRepository;
+    private final SlotTemplateRepository slotTemplateRepository;
+    private final DoctorLeaveRepository leaveRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final SlotsGeneratorProperties generatorProperties;
+
+    @Override
+    public List<EarliestSlotDTO> findEarliestAvailable(Criteria criteria) {
+        if (criteria.days() < 1 || criteria.days() > MAX_DAYS) {
+            throw new BusinessException("days must be between 1 and " + MAX_DAYS);
+        }
+        if (criteria.limit() < 1 || criteria.limit() > MAX_LIMIT) {
+            throw new BusinessException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        boolean byDistance = criteria.latitude() != null || criteria.longitude() != null
+                || criteria.radiusKm() != null;
+        if (byDistance && (criteria.latitude() == null || criteria.longitude() == null
+                || criteria.radiusKm() == null || criteria.radiusKm() <= 0)) {
+            throw new BusinessException("Location search needs latitude, longitude and a positive radiusKm");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate from = criteria.from() == null || criteria.from().isBefore(now.toLocalDate())
+                ? now.toLocalDate() : criteria.from();
+        LocalDate to = from.plusDays(criteria.days() - 1L);
+        // slots on the first day must not have started yet
+        LocalTime notBefore = from.equals(now.toLocalDate()) ? now.toLocalTime() : LocalTime.MIN;
+        DoctorFilter filter = toFilter(criteria, byDistance);
+
+        List<EarliestSlotDTO> results = new ArrayList<>();
+        if (generatorProperties.isVirtual()) {
+            results.addAll(searchTemplates(filter, from, notBefore, to, criteria));
+        } else {
+            // slot rows only exist up to the generation horizon (slots.generator.days-ahead)
+            LocalDate horizonEnd = now.toLocalDate().plusDays(Math.max(1, generatorProperties.getDaysAhead()) - 1L);
+            Set<Long> found = new HashSet<>();
+            if (!from.isAfter(horizonEnd)) {
+                // the distance check below can drop rows, so only let the database limit plain searches
+                for (EarliestSlotRow row : searchRepository.findEarliestFreeSlots(filter, from, notBefore,
+                        to.isAfter(horizonEnd) ? horizonEnd : to, byDistance ? 0 : criteria.limit())) {
+                    found.add(row.doctor().doctorId());
+                    results.add(toDTO(row.doctor(), row.slotId(), LocalDateTime.of(row.date(), row.startTime()),
+                            LocalDateTime.of(row.date(), row.endTime()), criteria));
+                }
+            }
+            // later days are laid out from the templates, as generation will do, without a slotId yet;
+            // doctors with a free slot inside the horizon already have their earliest one
+            if (to.isAfter(horizonEnd)) {
+                LocalDate beyond = from.isAfter(horizonEnd) ? from : horizonEnd.plusDays(1);
+                for (EarliestSlotDTO dto : searchTemplates(filter, beyond,
+                        beyond.equals(from) ? notBefore : LocalTime.MIN, to, criteria)) {
+                    if (!found.contains(dto.getDoctorId())) {
+                        results.add(dto);
+                    }
+                }
+            }
+        }
+
+        if (byDistance) {
+            results.removeIf(dto -> dto.getDistanceKm() == null || dto.getDistanceKm() > criteria.radiusKm());
+        }
+        return results.stream()
+                .sorted(Comparator.comparing(EarliestSlotDTO::getStart).thenComparing(EarliestSlotDTO::getDoctorId))
+                .limit(criteria.limit())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * VIRTUAL mode has no free slot rows, and MATERIALIZED mode has none past
+     * the generation horizon, so the earliest slot is computed from the
+     * templates of all matching doctors with a fixed number of queries.
+     */
+    private List<EarliestSlotDTO> searchTemplates(DoctorFilter filter, LocalDate from, LocalTime notBefore,
+            LocalDate to, Criteria criteria) {
+        Map<Long, DoctorRow> doctors = searchRepository.findDoctors(filter).stream()
+                .collect(Collectors.toMap(DoctorRow::doctorId, Function.identity()));
+        if (doctors.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Map<DayOfWeek, List<SlotTemplate>>> templates = new HashMap<>();
+        for (SlotTemplate t : slotTemplateRepository.findActiveByDoctorIds(doctors.keySet())) {
+            templates.computeIfAbsent(t.getDoctor().getId(), k -> new HashMap<>())
+                    .computeIfAbsent(t.getDayOfWeek(), k -> new ArrayList<>())
+                    .add(t);
+        }
+        if (templates.isEmpty()) {
+            return List.of();
+        }
+        Set<DoctorDate> leaves = new HashSet<>();
+        for (DoctorDateView l : leaveRepository.findActiveLeaveDays(templates.keySet(), from, to)) {
+            leaves.add(new DoctorDate(l.getDoctorId(), l.getDate()));
+        }
+        Map<DoctorDate, List<LocalTime>> booked = new HashMap<>();
+        for (DoctorAppointmentTimeView a : appointmentRepository.findAppointmentTimes(templates.keySet(),
+                from.atStartOfDay(), to.atTime(LocalTime.MAX), BOOKED_STATUSES)) {
+            booked.computeIfAbsent(new DoctorDate(a.getDoctorId(), a.getAppointmentDateTime().toLocalDate()),
+                    k -> new ArrayList<>()).add(a.getAppointmentDateTime().toLocalTime());
+        }
+
+        List<EarliestSlotDTO> results = new ArrayList<>();
+        for (Map.Entry<Long, Map<DayOfWeek, List<SlotTemplate>>> entry : templates.entrySet()) {
+            Long doctorId = entry.getKey();
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                List<SlotTemplate> dayTemplates = entry.getValue().get(date.getDayOfWeek());
+                DoctorDate key = new DoctorDate(doctorId, date);
+                if (dayTemplates == null || leaves.contains(key)) {
+                    continue;
+                }
+                DaySchedule schedule = DaySchedule.of(dayTemplates);
+                schedule.occupyAll(booked.getOrDefault(key, List.of()));
+                int first = schedule.firstFree(date.equals(from) ? firstWholeMinute(notBefore) : 0);
+                if (first >= 0) {
+                    LocalDateTime start = LocalDateTime.of(date, LocalTime.ofSecondOfDay(first * 60L));
+                    results.add(toDTO(doctors.get(doctorId), null, start,
+                            LocalDateTime.of(date, LocalTime.ofSecondOfDay(schedule.endOf(first) * 60L)), criteria));
+                    break;
+                }
+            }
+        }
+        return results;
+    }
+
+    private static DoctorFilter toFilter(Criteria criteria, boolean byDistance) {
+        String specialization = criteria.specialization() == null || criteria.specialization().isBlank()
+                ? null : criteria.specialization().trim();
+        if (!byDistance) {
+            return new DoctorFilter(specialization, criteria.hospitalId(), null, null, null, null);
+        }
+        // bounding box around the point; the exact great-circle distance is checked afterwards
+        double latDelta = Math.toDegrees(criteria.radiusKm() / EARTH_RADIUS_KM);
+        double lngDelta = latDelta / Math.max(Math.cos(Math.toRadians(criteria.latitude())), 0.01);
+        return new DoctorFilter(specialization, criteria.hospitalId(),
+                BigDecimal.valueOf(criteria.latitude() - latDelta), BigDecimal.valueOf(criteria.latitude() + latDelta),
+                BigDecimal.valueOf(criteria.longitude() - lngDelta),
+                BigDecimal.valueOf(criteria.longitude() + lngDelta));
+    }
+
+    private static EarliestSlotDTO toDTO(DoctorRow doctor, Long slotId, LocalDateTime start, LocalDateTime end,
+            Criteria criteria) {
+        EarliestSlotDTO dto = new EarliestSlotDTO();
+        dto.setDoctorId(doctor.doctorId());
+        dto.setDoctorName(doctor.firstName() + " " + doctor.lastName());
+        dto.setSpecialization(doctor.specialization());
+        dto.setHospitalId(doctor.hospitalId());
+        dto.setHospitalName(doctor.hospitalName());
+        dto.setSlotId(slotId);
+        dto.setStart(start);
+        dto.setEnd(end);
+        if (criteria.latitude() != null && doctor.latitude() != null && doctor.longitude() != null) {
+            dto.setDistanceKm(distanceKm(criteria.latitude(), criteria.longitude(), doctor.latitude().doubleValue(),
+                    doctor.longitude().doubleValue()));
+        }
+        return dto;
+    }
+
+    // minute-of-day of the first slot start not before the given time
+    private static int firstWholeMinute(LocalTime time) {
+        int minute = DaySchedule.minuteOf(time);
+        return time.getSecond() > 0 || time.getNano() > 0 ? minute + 1 : minute;
+    }
+
+    private record DoctorDate(Long doctorId, LocalDate date) {
+    }
+
+    // haversine great-circle distance
+    private static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                        * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+}
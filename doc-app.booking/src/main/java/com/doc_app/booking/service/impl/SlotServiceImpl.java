@@ -1,25 +1,50 @@
 package com.doc_app.booking.service.impl;
 
+import com.doc_app.booking.config.SlotsGeneratorProperties;
+import com.doc_app.booking.dto.DayAvailabilityDTO;
 import com.doc_app.booking.dto.SlotDTO;
+import com.doc_app.booking.dto.SlotHistoryPageDTO;
+import com.doc_app.booking.exception.BusinessException;
 import com.doc_app.booking.model.Appointment;
+import com.doc_app.booking.model.AppointmentStatus;
 import com.doc_app.booking.model.Slot;
-import com.doc_app.booking.model.Doctor;
+import com.doc_app.booking.model.SlotStatus;
 import com.doc_app.booking.model.SlotTemplate;
 import com.doc_app.booking.repository.AppointmentRepository;
+import com.doc_app.booking.repository.DoctorLeaveRepository;
+import com.doc_app.booking.repository.SlotArchiveRepository;
+import com.doc_app.booking.repository.SlotJdbcRepository;
+import com.doc_app.booking.repository.SlotJdbcRepository.SlotRow;
+import com.doc_app.booking.repository.SlotJdbcRepository.SlotState;
 import com.doc_app.booking.repository.SlotRepository;
 import com.doc_app.booking.repository.DoctorRepository;
 import com.doc_app.booking.repository.SlotTemplateRepository;
+import com.doc_app.booking.repository.projection.DayAvailabilityView;
+import com.doc_app.booking.repository.projection.DoctorDateView;
+import com.doc_app.booking.repository.projection.SlotStatusView;
+import com.doc_app.booking.service.DoctorCountersService;
 import com.doc_app.booking.service.SlotService;
+import com.doc_app.booking.service.slot.AvailabilityCache;
+import com.doc_app.booking.service.slot.AvailabilityIndex;
+import com.doc_app.booking.service.slot.DaySchedule;
+import com.doc_app.booking.service.slot.SlotGenerationCoalescer;
+import com.doc_app.booking.service.slot.VirtualSlotCalculator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,147 +54,325 @@ public class SlotServiceImpl implements SlotService {
 
     @Override
     public long countFreeSlotsToday(Long doctorId) {
-        LocalDate today = LocalDate.now();
-        List<SlotDTO> slots = getAvailableSlots(doctorId, today);
-        // A slot is free if available == true or status == "AVAILABLE"
-        return slots.stream().filter(slot -> slot.isAvailable()
-                || (slot.getStatus() != null && slot.getStatus().equalsIgnoreCase("AVAILABLE"))).count();
+        return doctorCountersService.getTodayCounters(doctorId).getFreeSlots();
     }
 
+    private static final List<AppointmentStatus> OCCUPYING_STATUSES = List.of(
+            AppointmentStatus.SCHEDULED,
+            AppointmentStatus.COMPLETED);
+
+    private static final List<AppointmentStatus> BOOKED_STATUSES = List.of(
+            AppointmentStatus.SCHEDULED,
+            AppointmentStatus.COMPLETED,
+            AppointmentStatus.RESERVED);
+
+    static final int MAX_HISTORY_DAYS = 366;
+
+    static final int MAX_HISTORY_PAGE_SIZE = 500;
+
     private final DoctorRepository doctorRepository;
     private final SlotTemplateRepository slotTemplateRepository;
     private final SlotRepository slotRepository;
+    private final SlotJdbcRepository slotJdbcRepository;
     private final AppointmentRepository appointmentRepository;
+    private final SlotsGeneratorProperties generatorProperties;
+    private final VirtualSlotCalculator virtualSlotCalculator;
+    private final SlotGenerationCoalescer generationCoalescer;
+    private final AvailabilityCache availabilityCache;
+    private final AvailabilityIndex availabilityIndex;
+    private final DoctorLeaveRepository leaveRepository;
+    private final DoctorCountersService doctorCountersService;
+    private final SlotArchiveRepository slotArchiveRepository;
 
     @Override
     @Transactional
     public List<SlotDTO> generateSlotsForDoctor(Long doctorId, LocalDate date) {
-        Doctor doctor = doctorRepository.findById(doctorId)
-                .orElseThrow(() -> new IllegalArgumentException("Doctor not found"));
-
         // find slot templates for the day (support multiple slot template ranges per
         // doctor)
-        List<SlotTemplate> slotTemplate = slotTemplateRepository.findByDoctorAndDayOfWeek(doctor, date.getDayOfWeek());
-        if (slotTemplate == null || slotTemplate.isEmpty())
+        List<SlotTemplate> slotTemplates = slotTemplateRepository.findByDoctor_IdAndDayOfWeekAndActiveTrue(doctorId,
+                date.getDayOfWeek());
+        if (slotTemplates.isEmpty()) {
+            if (!doctorRepository.existsById(doctorId)) {
+                throw new IllegalArgumentException("Doctor not found");
+            }
             return new ArrayList<>();
+        }
 
-        // load existing slots to avoid creating duplicates
-        List<Slot> existing = slotRepository.findByDoctorIdAndDate(doctorId, date);
-        List<Slot> created = new ArrayList<>();
+        // slots overlapping a scheduled/completed appointment are created unavailable
+        List<LocalTime> occupied = appointmentRepository.findAppointmentTimes(List.of(doctorId), date.atStartOfDay(),
+                date.atTime(LocalTime.MAX), OCCUPYING_STATUSES).stream()
+                .map(a -> a.getAppointmentDateTime().toLocalTime())
+                .collect(Collectors.toList());
 
-        for (SlotTemplate slotTemplates : slotTemplate) {
-            if (!slotTemplates.isActive())
-                continue;
+        DaySchedule schedule = DaySchedule.of(slotTemplates);
+        schedule.occupyAll(occupied);
+        List<SlotRow> candidates = schedule.toRows(doctorId, date);
 
-            LocalDateTime cursor = date.atTime(slotTemplates.getStartTime());
-            LocalDateTime end = date.atTime(slotTemplates.getEndTime());
+        // insert-if-absent on (doctor, date, start) replaces the pre-read of existing slots
+        List<SlotRow> inserted = slotJdbcRepository.insertIfAbsent(candidates, generatorProperties.getBatchSize());
+        if (inserted.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<LocalTime> insertedStarts = inserted.stream().map(SlotRow::startTime).collect(Collectors.toSet());
+        return slotRepository.findByDoctorIdAndDate(doctorId, date).stream()
+                .filter(s -> insertedStarts.contains(s.getStartTime()))
+                .map(s -> new SlotDTO(
+                        s.getId(),
+                        LocalDateTime.of(s.getDate(), s.getStartTime()),
+                        LocalDateTime.of(s.getDate(), s.getEndTime()),
+                        s.isAvailable()))
+                .collect(Collectors.toList());
+    }
 
-            while (!cursor.plusMinutes(slotTemplates.getSlotDurationMinutes()).isAfter(end)) {
-                LocalDateTime slotEnd = cursor.plusMinutes(slotTemplates.getSlotDurationMinutes());
+    // SUPPORTS: callers waiting on a coalesced generation must not hold a
+    // connection, otherwise a burst can starve the generating thread's pool;
+    // this relies on spring.jpa.open-in-view=false, an open request session
+    // would keep the connection of the first query until the response is sent
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<SlotDTO> getAvailableSlots(Long doctorId, LocalDate date) {
+        List<SlotStatusView> indexed = availabilityIndex.get(doctorId, date);
+        if (indexed != null) {
+            return toSlotDTOs(indexed);
+        }
+        return availabilityCache.get(doctorId, date, () -> loadAvailableSlots(doctorId, date));
+    }
 
-                // if a slot already exists with same start time, skip
-                java.time.LocalTime candidateStart = cursor.toLocalTime();
-                boolean exists = existing.stream()
-                        .anyMatch(s -> s.getStartTime().equals(candidateStart) && s.getDate().equals(date));
-                if (exists) {
-                    cursor = slotEnd;
-                    continue;
-                }
+    private List<SlotDTO> loadAvailableSlots(Long doctorId, LocalDate date) {
+        if (generatorProperties.isVirtual()) {
+            return getVirtualSlots(doctorId, date);
+        }
 
-                Slot slot = new Slot();
-                slot.setDoctor(doctor);
-                slot.setDate(date);
-                slot.setStartTime(cursor.toLocalTime());
-                slot.setEndTime(slotEnd.toLocalTime());
-                slot.setAvailable(true);
-                created.add(slotRepository.save(slot));
-                cursor = slotEnd;
-            }
+        // generate if no slots exist: one caller per doctor-day writes, the rest wait and re-read;
+        // past days are never generated, their slots may have been archived
+        List<SlotStatusView> slots = slotRepository.findStatusByDoctorIdAndDate(doctorId, date);
+        if (slots.isEmpty() && !date.isBefore(LocalDate.now())) {
+            generationCoalescer.generateOnce(doctorId, date, () -> generateSlotsForDoctor(doctorId, date));
+            slots = slotRepository.findStatusByDoctorIdAndDate(doctorId, date);
         }
+        return toSlotDTOs(slots);
+    }
 
-        // mark occupied slots from appointments
-        LocalDateTime dayStart = date.atStartOfDay();
-        LocalDateTime dayEnd = date.atTime(LocalTime.MAX);
-        List<Appointment> appointments = appointmentRepository.findByDoctorIdAndAppointmentDateTimeBetween(doctorId,
-                dayStart, dayEnd);
-
-        for (Appointment ap : appointments) {
-            if (ap.getStatus() == com.doc_app.booking.model.AppointmentStatus.SCHEDULED
-                    || ap.getStatus() == com.doc_app.booking.model.AppointmentStatus.COMPLETED) {
-                for (Slot slot : created) {
-                    LocalDateTime slotStart = LocalDateTime.of(slot.getDate(), slot.getStartTime());
-                    LocalDateTime slotEnd = LocalDateTime.of(slot.getDate(), slot.getEndTime());
-                    if (!ap.getAppointmentDateTime().isBefore(slotStart)
-                            && ap.getAppointmentDateTime().isBefore(slotEnd)) {
-                        slot.setAvailable(false);
-                        slotRepository.save(slot);
-                    }
-                }
+    /**
+     * VIRTUAL mode: the day's slots come from the templates; only booked slots
+     * have a row (and therefore a slotId).
+     */
+    private List<SlotDTO> getVirtualSlots(Long doctorId, LocalDate date) {
+        DaySchedule schedule = virtualSlotCalculator.computeSchedule(doctorId, date);
+        if (schedule.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<LocalTime, Slot> materialized = slotRepository.findByDoctorIdAndDate(doctorId, date).stream()
+                .collect(Collectors.toMap(Slot::getStartTime, s -> s, (s1, s2) -> s1));
+
+        // overlay booked appointments onto the bitmap, remembering the first one per slot start minute
+        Map<Integer, Appointment> bySlotStart = new HashMap<>();
+        for (Appointment a : appointmentRepository.findByDoctorIdAndDateRangeAndStatusIn(doctorId,
+                date.atStartOfDay(), date.atTime(LocalTime.MAX), BOOKED_STATUSES)) {
+            int slotStart = schedule.slotStartContaining(DaySchedule.minuteOf(a.getAppointmentDateTime().toLocalTime()));
+            if (slotStart >= 0) {
+                schedule.occupy(slotStart);
+                bySlotStart.putIfAbsent(slotStart, a);
             }
         }
 
-        return created.stream().map(s -> new SlotDTO(
-                s.getId(),
-                LocalDateTime.of(s.getDate(), s.getStartTime()),
-                LocalDateTime.of(s.getDate(), s.getEndTime()),
-                s.isAvailable())).collect(Collectors.toList());
+        List<SlotRow> rows = schedule.toRows(doctorId, date);
+        List<SlotDTO> result = new ArrayList<>(rows.size());
+        for (SlotRow row : rows) {
+            LocalDateTime start = LocalDateTime.of(date, row.startTime());
+            LocalDateTime end = LocalDateTime.of(date, row.endTime());
+            Appointment appt = bySlotStart.get(DaySchedule.minuteOf(row.startTime()));
+            Slot slot = materialized.get(row.startTime());
+            boolean booked = !row.available();
+            result.add(new SlotDTO(
+                    slot != null ? slot.getId() : null,
+                    start,
+                    end,
+                    !booked,
+                    booked ? "BOOKED" : "AVAILABLE",
+                    booked ? appt.getStatus() : null));
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional
+    public Long materializeSlot(Long doctorId, LocalDateTime start) {
+        LocalDate date = start.toLocalDate();
+        List<LocalTime> occupied = appointmentRepository.findAppointmentTimes(List.of(doctorId), date.atStartOfDay(),
+                date.atTime(LocalTime.MAX), BOOKED_STATUSES).stream()
+                .map(a -> a.getAppointmentDateTime().toLocalTime())
+                .collect(Collectors.toList());
+        SlotRow row = virtualSlotCalculator.computeDay(doctorId, date, occupied).stream()
+                .filter(r -> r.startTime().equals(start.toLocalTime()))
+                .findFirst()
+                .orElseThrow(() -> new BusinessException("Doctor has no slot starting at " + start));
+        slotJdbcRepository.insertIfAbsent(List.of(row), 1);
+        return slotRepository.findByDoctorIdAndDateAndStartTime(doctorId, date, row.startTime())
+                .map(Slot::getId)
+                .orElseThrow(() -> new IllegalStateException("Slot was not materialized"));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<SlotDTO> getAvailableSlots(Long doctorId, LocalDate date) {
-        // regenerate if no slots exist
-        List<Slot> slots = slotRepository.findByDoctorIdAndDate(doctorId, date);
-        if (slots.isEmpty()) {
-            return generateSlotsForDoctor(doctorId, date);
-        }
-
-        // Batch fetch all appointments for these slots to avoid N+1 queries
-        List<Long> slotIds = slots.stream().map(Slot::getId).collect(Collectors.toList());
-        List<Appointment> appointments = appointmentRepository.findBySlot_IdIn(slotIds);
-        // Map slotId -> appointment (only first if multiple)
-        java.util.Map<Long, Appointment> slotAppointmentMap = appointments.stream()
-            .collect(Collectors.toMap(a -> a.getSlot().getId(), a -> a, (a1, a2) -> a1));
-
-        List<com.doc_app.booking.model.AppointmentStatus> bookedStatuses = List.of(
-                com.doc_app.booking.model.AppointmentStatus.SCHEDULED,
-                com.doc_app.booking.model.AppointmentStatus.COMPLETED,
-                com.doc_app.booking.model.AppointmentStatus.RESERVED);
-        return slots.stream().map(s -> {
-            Appointment appt = slotAppointmentMap.get(s.getId());
-            boolean booked = appt != null && bookedStatuses.contains(appt.getStatus());
-            return new SlotDTO(
-                    s.getId(),
-                    LocalDateTime.of(s.getDate(), s.getStartTime()),
-                    LocalDateTime.of(s.getDate(), s.getEndTime()),
-                    !booked,
-                    booked ? "BOOKED" : "AVAILABLE",
-                    appt != null ? appt.getStatus() : null);
-        }).collect(Collectors.toList());
+    public SlotHistoryPageDTO getSlotHistory(Long doctorId, LocalDate from, LocalDate to, LocalDateTime after,
+            int size) {
+        if (to.isBefore(from)) {
+            throw new BusinessException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_HISTORY_DAYS) {
+            throw new BusinessException("Slot history range must not exceed " + MAX_HISTORY_DAYS + " days");
+        }
+        int pageSize = Math.min(Math.max(size, 1), MAX_HISTORY_PAGE_SIZE);
+        // before the first slot of the range
+        LocalDateTime cursor = after != null ? after : from.minusDays(1).atTime(LocalTime.MAX);
+
+        // one extra row tells whether another page follows
+        List<SlotState> rows = slotArchiveRepository.findHistory(doctorId, from, to, cursor.toLocalDate(),
+                cursor.toLocalTime(), pageSize + 1);
+        boolean more = rows.size() > pageSize;
+        List<SlotDTO> content = new ArrayList<>(Math.min(rows.size(), pageSize));
+        for (SlotState row : rows.subList(0, Math.min(rows.size(), pageSize))) {
+            content.add(toSlotDTO(row.slotId(), row.date(), row.startTime(), row.endTime(), row.status()));
+        }
+        LocalDateTime nextCursor = more ? content.get(content.size() - 1).getStart() : null;
+        return new SlotHistoryPageDTO(content, content.size(), nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<SlotDTO> getUpcomingSlots(Long doctorId, LocalDate date) {
+        LocalDateTime now = LocalDateTime.now();
+        if (date.isBefore(now.toLocalDate())) {
+            return new ArrayList<>();
+        }
+        // the cached day is already ordered by start time; today only loses the slots that are over
+        List<SlotDTO> slots = getAvailableSlots(doctorId, date);
+        if (date.isAfter(now.toLocalDate())) {
+            return slots;
+        }
+        return slots.stream()
+                .filter(slot -> slot.getEnd() != null && slot.getEnd().isAfter(now))
+                .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<SlotDTO> getAllSlots(Long doctorId) {
-    List<Slot> slots = slotRepository.findByDoctorId(doctorId);
-    List<Long> slotIds = slots.stream().map(Slot::getId).collect(Collectors.toList());
-    List<Appointment> appointments = appointmentRepository.findBySlot_IdIn(slotIds);
-    java.util.Map<Long, Appointment> slotAppointmentMap = appointments.stream()
-        .collect(Collectors.toMap(a -> a.getSlot().getId(), a -> a, (a1, a2) -> a1));
-    List<com.doc_app.booking.model.AppointmentStatus> bookedStatuses = List.of(
-        com.doc_app.booking.model.AppointmentStatus.SCHEDULED,
-        com.doc_app.booking.model.AppointmentStatus.COMPLETED,
-        com.doc_app.booking.model.AppointmentStatus.RESERVED);
-    return slots.stream().map(s -> {
-        Appointment appt = slotAppointmentMap.get(s.getId());
-        boolean booked = appt != null && bookedStatuses.contains(appt.getStatus());
+    public List<SlotDTO> getUpcomingSlots(Long doctorId) {
+        LocalDateTime now = LocalDateTime.now();
+        return toSlotDTOs(slotRepository.findUpcomingStatusByDoctorId(doctorId, now.toLocalDate(),
+                now.toLocalTime()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DayAvailabilityDTO> getAvailabilitySummary(Long doctorId, LocalDate from, int days) {
+        if (days <= 0) {
+            return new ArrayList<>();
+        }
+        LocalDate to = from.plusDays(days - 1L);
+        LocalDate today = LocalDate.now();
+        LocalTime now = LocalTime.now();
+
+        // MATERIALIZED days held by the availability index are counted on their bitmaps;
+        // the grouped query only runs when some day of the range is not indexed
+        Map<LocalDate, DaySchedule> indexed = new HashMap<>();
+        if (!generatorProperties.isVirtual()) {
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                DaySchedule schedule = availabilityIndex.getSchedule(doctorId, date);
+                if (schedule != null) {
+                    indexed.put(date, schedule);
+                }
+            }
+        }
+        Map<LocalDate, DayAvailabilityView> counted = generatorProperties.isVirtual() || indexed.size() == days
+                ? Map.of()
+                : slotRepository.summarizeByDate(doctorId, from, to, today, now).stream()
+                        .collect(Collectors.toMap(DayAvailabilityView::getDate, v -> v));
+
+        // days without slot rows (VIRTUAL mode or not generated yet) are computed from the templates
+        Map<DayOfWeek, List<SlotTemplate>> templates = null;
+        Set<LocalDate> leaveDays = null;
+        Map<LocalDate, List<LocalTime>> booked = null;
+
+        List<DayAvailabilityDTO> result = new ArrayList<>(days);
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            DaySchedule indexedDay = indexed.get(date);
+            if (indexedDay != null) {
+                result.add(summarize(date, indexedDay, today, now));
+                continue;
+            }
+            DayAvailabilityView view = counted.get(date);
+            if (view != null) {
+                result.add(new DayAvailabilityDTO(date, view.getTotal().intValue(), view.getFree().intValue(),
+                        view.getFirstFree()));
+                continue;
+            }
+            if (templates == null) {
+                templates = slotTemplateRepository.findActiveByDoctorIds(List.of(doctorId)).stream()
+                        .collect(Collectors.groupingBy(SlotTemplate::getDayOfWeek));
+                leaveDays = leaveRepository.findActiveLeaveDays(List.of(doctorId), from, to).stream()
+                        .map(DoctorDateView::getDate)
+                        .collect(Collectors.toSet());
+                booked = appointmentRepository.findAppointmentTimes(List.of(doctorId), from.atStartOfDay(),
+                        to.atTime(LocalTime.MAX), BOOKED_STATUSES).stream()
+                        .collect(Collectors.groupingBy(a -> a.getAppointmentDateTime().toLocalDate(),
+                                Collectors.mapping(a -> a.getAppointmentDateTime().toLocalTime(),
+                                        Collectors.toList())));
+            }
+            DaySchedule schedule = DaySchedule.of(templates.getOrDefault(date.getDayOfWeek(), List.of()));
+            if (leaveDays.contains(date)) {
+                schedule.clear();
+            }
+            schedule.occupyAll(booked.getOrDefault(date, List.of()));
+            result.add(summarize(date, schedule, today, now));
+        }
+        return result;
+    }
+
+    private static DayAvailabilityDTO summarize(LocalDate date, DaySchedule schedule, LocalDate today,
+            LocalTime now) {
+        int fromMinute = 0;
+        if (date.isBefore(today)) {
+            fromMinute = DaySchedule.MINUTES_PER_DAY;
+        } else if (date.equals(today)) {
+            // keep the slot that is running right now, as the grouped query does
+            int nowMinute = DaySchedule.minuteOf(now);
+            int running = schedule.slotStartContaining(nowMinute);
+            fromMinute = running >= 0 ? running : nowMinute;
+        }
+        int firstFree = schedule.firstFree(fromMinute);
+        return new DayAvailabilityDTO(date, schedule.slotCount(fromMinute), schedule.freeCount(fromMinute),
+                firstFree >= 0 ? LocalTime.ofSecondOfDay(firstFree * 60L) : null);
+    }
+
+    private static List<SlotDTO> toSlotDTOs(List<SlotStatusView> rows) {
+        List<SlotDTO> result = new ArrayList<>(rows.size());
+        for (SlotStatusView row : rows) {
+            result.add(toSlotDTO(row.getSlotId(), row.getDate(), row.getStartTime(), row.getEndTime(),
+                    row.getStatus()));
+        }
+        return result;
+    }
+
+    private static SlotDTO toSlotDTO(Long slotId, LocalDate date, LocalTime start, LocalTime end,
+            SlotStatus status) {
         return new SlotDTO(
-            s.getId(),
-            LocalDateTime.of(s.getDate(), s.getStartTime()),
-            LocalDateTime.of(s.getDate(), s.getEndTime()),
-            !booked,
-            booked ? "BOOKED" : "AVAILABLE",
-            appt != null ? appt.getStatus() : null);
-    }).collect(Collectors.toList());
+                slotId,
+                LocalDateTime.of(date, start),
+                LocalDateTime.of(date, end),
+                status == SlotStatus.AVAILABLE,
+                status.name(),
+                appointmentStatus(status));
+    }
+
+    // the slot row only tells held from booked; a completed visit is reported as SCHEDULED
+    private static AppointmentStatus appointmentStatus(SlotStatus status) {
+        return switch (status) {
+            case HELD -> AppointmentStatus.RESERVED;
+            case BOOKED -> AppointmentStatus.SCHEDULED;
+            case AVAILABLE, BLOCKED -> null;
+        };
     }
 }
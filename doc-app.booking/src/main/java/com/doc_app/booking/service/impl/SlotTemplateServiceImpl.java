@@ -6,15 +6,22 @@ import com.doc_app.booking.exception.BusinessException;
 import com.doc_app.booking.model.Doctor;
 import com.doc_app.booking.model.SlotTemplate;
 import com.doc_app.booking.repository.DoctorRepository;
+import com.doc_app.booking.repository.SlotGenerationWatermarkRepository;
 import com.doc_app.booking.repository.SlotTemplateRepository;
 import com.doc_app.booking.service.SlotTemplateService;
+import com.doc_app.booking.service.slot.SlotAvailabilityChangedEvent;
+import com.doc_app.booking.service.slot.SlotRematerializer;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DayOfWeek;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,6 +31,9 @@ public class SlotTemplateServiceImpl implements SlotTemplateService {
 
     private final SlotTemplateRepository slotTemplateRepository;
     private final DoctorRepository doctorRepository;
+    private final SlotRematerializer slotRematerializer;
+    private final SlotGenerationWatermarkRepository watermarkRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -38,6 +48,7 @@ public class SlotTemplateServiceImpl implements SlotTemplateService {
         } else {
             slotTemplate = new SlotTemplate();
         }
+        DayOfWeek previousDay = slotTemplate.getDayOfWeek();
 
         // validation
         if (dto.getStartTime() == null || dto.getEndTime() == null) {
@@ -88,7 +99,18 @@ public class SlotTemplateServiceImpl implements SlotTemplateService {
 
         slotTemplate = slotTemplateRepository.save(slotTemplate);
 
+        // bring already generated future slots of the affected weekdays in line with the templates
+        Set<DayOfWeek> affectedDays = EnumSet.of(dto.getDayOfWeek());
+        if (previousDay != null) {
+            affectedDays.add(previousDay);
+        }
+        SlotRematerializer.Result rematerialized = slotRematerializer.rematerialize(doctor.getId(), affectedDays);
+        // let the next nightly run re-examine the doctor's whole horizon
+        watermarkRepository.reset(doctor.getId());
+        eventPublisher.publishEvent(SlotAvailabilityChangedEvent.forDoctor(doctor.getId(), "template change"));
+
         dto.setId(slotTemplate.getId());
+        dto.setConflictingSlotIds(rematerialized.conflictingSlotIds());
         return dto;
     }
 
@@ -0,0 +1,184 @@
+package com.doc_app.booking.service.scheduler;
+
+import com.doc_app.booking.config.SlotsGeneratorProperties;
+import com.doc_app.booking.model.AppointmentStatus;
+import com.doc_app.booking.model.SlotGenerationWatermark;
+import com.doc_app.booking.model.SlotTemplate;
+import com.doc_app.booking.repository.AppointmentRepository;
+import com.doc_app.booking.repository.DoctorLeaveRepository;
+import com.doc_app.booking.repository.SlotJdbcRepository;
+import com.doc_app.booking.repository.SlotGenerationWatermarkRepository;
+import com.doc_app.booking.repository.SlotJdbcRepository.SlotRow;
+import com.doc_app.booking.repository.SlotRepository;
+import com.doc_app.booking.repository.SlotTemplateRepository;
+import com.doc_app.booking.repository.projection.DoctorAppointmentTimeView;
+import com.doc_app.booking.repository.projection.DoctorDateView;
+import com.doc_app.booking.repository.projection.SlotKeyView;
+import com.doc_app.booking.service.slot.DaySchedule;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Set-based slot materialization for many doctors and days at once.
+ *
+ * Templates, leaves, existing slots and occupying appointments for the whole
+ * horizon are prefetched in four queries, missing slots are computed in memory
+ * and written with batched insert-if-absent statements, so a run can overlap
+ * with on-demand generation without creating duplicates.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BulkSlotGenerator {
+
+    private static final List<AppointmentStatus> OCCUPYING_STATUSES = List.of(
+            AppointmentStatus.SCHEDULED,
+            AppointmentStatus.COMPLETED);
+
+    private final SlotTemplateRepository slotTemplateRepository;
+    private final DoctorLeaveRepository leaveRepository;
+    private final SlotRepository slotRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final SlotJdbcRepository slotJdbcRepository;
+    private final SlotGenerationWatermarkRepository watermarkRepository;
+    private final SlotsGeneratorProperties properties;
+
+    /**
+     * Extends each doctor's materialized horizon to {@code through}. Doctors are
+     * generated from the day after their watermark (or from {@code today} when
+     * they have none), so a nightly run only touches the newly exposed day.
+     * Watermarks are advanced in the same transaction as the inserted slots.
+     *
+     * @return number of slots inserted
+     */
+    @Transactional
+    public int extendHorizon(Collection<Long> doctorIds, LocalDate today, LocalDate through) {
+        if (doctorIds.isEmpty() || through.isBefore(today)) {
+            return 0;
+        }
+        Map<Long, LocalDate> watermarks = new HashMap<>();
+        for (SlotGenerationWatermark w : watermarkRepository.findAllById(doctorIds)) {
+            watermarks.put(w.getDoctorId(), w.getGeneratedThrough());
+        }
+
+        // doctors normally share a watermark, so this is usually a single group
+        Map<LocalDate, List<Long>> byStart = new TreeMap<>();
+        for (Long doctorId : doctorIds) {
+            LocalDate watermark = watermarks.get(doctorId);
+            LocalDate start = watermark == null || watermark.isBefore(today) ? today : watermark.plusDays(1);
+            if (!start.isAfter(through)) {
+                byStart.computeIfAbsent(start, k -> new ArrayList<>()).add(doctorId);
+            }
+        }
+
+        int inserted = 0;
+        for (Map.Entry<LocalDate, List<Long>> group : byStart.entrySet()) {
+            inserted += generate(group.getValue(), group.getKey(), through);
+        }
+
+        List<Long> known = new ArrayList<>();
+        List<SlotGenerationWatermark> created = new ArrayList<>();
+        for (List<Long> group : byStart.values()) {
+            for (Long doctorId : group) {
+                if (watermarks.containsKey(doctorId)) {
+                    known.add(doctorId);
+                } else {
+                    created.add(new SlotGenerationWatermark(doctorId, through));
+                }
+            }
+        }
+        if (!known.isEmpty()) {
+            watermarkRepository.advance(known, through);
+        }
+        watermarkRepository.saveAll(created);
+        return inserted;
+    }
+
+    /**
+     * Materializes missing slots for the given doctors between {@code from} and
+     * {@code to} (both inclusive).
+     *
+     * @return number of slots inserted
+     */
+    @Transactional
+    public int generate(Collection<Long> doctorIds, LocalDate from, LocalDate to) {
+        if (doctorIds.isEmpty() || to.isBefore(from)) {
+            return 0;
+        }
+
+        Map<Long, Map<DayOfWeek, List<SlotTemplate>>> templates = new HashMap<>();
+        for (SlotTemplate t : slotTemplateRepository.findActiveByDoctorIds(doctorIds)) {
+            templates.computeIfAbsent(t.getDoctor().getId(), k -> new HashMap<>())
+                    .computeIfAbsent(t.getDayOfWeek(), k -> new ArrayList<>())
+                    .add(t);
+        }
+        if (templates.isEmpty()) {
+            return 0;
+        }
+        Set<Long> scheduled = templates.keySet();
+
+        Set<DoctorDate> leaves = new HashSet<>();
+        for (DoctorDateView l : leaveRepository.findActiveLeaveDays(scheduled, from, to)) {
+            leaves.add(new DoctorDate(l.getDoctorId(), l.getDate()));
+        }
+
+        Set<SlotKey> existing = new HashSet<>();
+        for (SlotKeyView s : slotRepository.findKeysByDoctorIdsAndDateBetween(scheduled, from, to)) {
+            existing.add(new SlotKey(s.getDoctorId(), s.getDate(), s.getStartTime()));
+        }
+
+        Map<DoctorDate, List<LocalTime>> occupied = new HashMap<>();
+        for (DoctorAppointmentTimeView a : appointmentRepository.findAppointmentTimes(scheduled,
+                from.atStartOfDay(), to.atTime(LocalTime.MAX), OCCUPYING_STATUSES)) {
+            occupied.computeIfAbsent(new DoctorDate(a.getDoctorId(), a.getAppointmentDateTime().toLocalDate()),
+                    k -> new ArrayList<>()).add(a.getAppointmentDateTime().toLocalTime());
+        }
+
+        List<SlotRow> rows = new ArrayList<>();
+        for (Map.Entry<Long, Map<DayOfWeek, List<SlotTemplate>>> entry : templates.entrySet()) {
+            Long doctorId = entry.getKey();
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                List<SlotTemplate> dayTemplates = entry.getValue().get(date.getDayOfWeek());
+                if (dayTemplates == null) {
+                    continue;
+                }
+                DoctorDate key = new DoctorDate(doctorId, date);
+                if (leaves.contains(key)) {
+                    log.debug("Skipping slot generation for doctor {} on {} because of leave", doctorId, date);
+                    continue;
+                }
+                DaySchedule schedule = DaySchedule.of(dayTemplates);
+                schedule.occupyAll(occupied.getOrDefault(key, List.of()));
+                for (SlotRow row : schedule.toRows(doctorId, date)) {
+                    if (!existing.contains(new SlotKey(doctorId, date, row.startTime()))) {
+                        rows.add(row);
+                    }
+                }
+            }
+        }
+
+        int inserted = slotJdbcRepository.insertIfAbsent(rows, properties.getBatchSize()).size();
+        log.debug("Bulk generated {} slots for {} doctors between {} and {}", inserted, scheduled.size(), from, to);
+        return inserted;
+    }
+
+    private record DoctorDate(Long doctorId, LocalDate date) {
+    }
+
+    private record SlotKey(Long doctorId, LocalDate date, LocalTime startTime) {
+    }
+}
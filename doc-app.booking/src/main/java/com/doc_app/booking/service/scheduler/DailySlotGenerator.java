@@ -1,20 +1,22 @@
 package com.doc_app.booking.service.scheduler;
 
 import com.doc_app.booking.config.SlotsGeneratorProperties;
-import com.doc_app.booking.dto.SlotDTO;
-import com.doc_app.booking.model.Doctor;
 import com.doc_app.booking.repository.DoctorRepository;
-import com.doc_app.booking.repository.DoctorLeaveRepository;
-import com.doc_app.booking.repository.SlotTemplateRepository;
-import com.doc_app.booking.service.SlotService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
 
 @Component
 @RequiredArgsConstructor
@@ -22,49 +24,122 @@ import java.util.List;
 public class DailySlotGenerator {
 
     private final DoctorRepository doctorRepository;
-    private final SlotService slotService;
+    private final BulkSlotGenerator bulkSlotGenerator;
     private final SlotsGeneratorProperties properties;
-    private final DoctorLeaveRepository leaveRepository;
-    private final SlotTemplateRepository scheduleRepository;
 
     // Runs based on configurable cron (default: daily 02:00)
     @Scheduled(cron = "${slots.generator.cron}")
     public void generateDaily() {
+        generateDaily(null);
+    }
+
+    /**
+     * Extends every doctor's horizon to {@code daysAhead} days, reporting
+     * progress to {@code job} when one is given.
+     */
+    public SlotGenerationSummary generateDaily(SlotGenerationJob job) {
+        if (properties.isVirtual()) {
+            log.debug("DailySlotGenerator: VIRTUAL slot mode, nothing to materialize");
+            return new SlotGenerationSummary(0, 0, 0, 0, 0);
+        }
         int days = properties.getDaysAhead();
-        log.info("DailySlotGenerator: generating slots for next {} days", days);
-        List<Doctor> doctors = doctorRepository.findAll();
+        if (days <= 0) {
+            log.info("DailySlotGenerator: days-ahead is {}, nothing to generate", days);
+            return new SlotGenerationSummary(0, 0, 0, 0, 0);
+        }
+        log.info("DailySlotGenerator: extending slot horizon to {} days ahead", days);
         LocalDate start = LocalDate.now();
-        for (Doctor doc : doctors) {
-            for (int i = 0; i < days; i++) {
-                LocalDate date = start.plusDays(i);
-                try {
-                    // Skip if doctor has an active leave for this date
-                    if (leaveRepository.existsByDoctorAndDate(doc, date)) {
-                        log.info("Skipping slot generation for doctor {} on {} because of leave", doc.getId(), date);
-                        continue;
-                    }
+        LocalDate through = start.plusDays(days - 1L);
+        SlotGenerationSummary summary = runPartitioned(
+                partition -> bulkSlotGenerator.extendHorizon(partition, start, through), job);
+        log.info("DailySlotGenerator: finished generating {} slots for {} doctors in {} ms ({} of {} partitions failed)",
+                summary.slotsCreated(), summary.doctors(), summary.elapsedMillis(), summary.failedPartitions(),
+                summary.partitions());
+        return summary;
+    }
 
-                    // Check schedules for the day (could be multiple ranges); if none active, skip
-                    var schedules = scheduleRepository.findByDoctorAndDayOfWeek(doc, date.getDayOfWeek());
-                    boolean anyActive = schedules.stream().anyMatch(s -> s.isActive());
-                    if (schedules.isEmpty() || !anyActive) {
-                        log.debug("No active schedules for doctor {} on {} — skipping", doc.getId(),
-                                date.getDayOfWeek());
-                        continue;
-                    }
+    /**
+     * Splits all doctors into partitions and materializes slots between
+     * {@code start} and {@code end} (inclusive) on a bounded worker pool. Every
+     * partition commits in its own transaction; a failing partition is logged
+     * and does not affect the others. Progress is reported to {@code job} when
+     * it is not null.
+     */
+    public SlotGenerationSummary generateRange(LocalDate start, LocalDate end, SlotGenerationJob job) {
+        return runPartitioned(partition -> bulkSlotGenerator.generate(partition, start, end), job);
+    }
 
-                    List<SlotDTO> slots = slotService.generateSlotsForDoctor(doc.getId(), date);
-                    log.debug("Generated {} slots for doctor {} on {}", slots.size(), doc.getId(), date);
-                } catch (Exception e) {
-                    log.error("Failed to generate slots for doctor {} on {}: {}", doc.getId(), date, e.getMessage(), e);
-                }
+    private SlotGenerationSummary runPartitioned(ToIntFunction<List<Long>> task, SlotGenerationJob job) {
+        long startedAt = System.currentTimeMillis();
+        List<Long> doctorIds = doctorRepository.findAllIds();
+        List<List<Long>> partitions = partition(doctorIds, properties.getPartitionSize());
+        if (job != null) {
+            job.planned(doctorIds.size(), partitions.size());
+        }
+        if (partitions.isEmpty()) {
+            return new SlotGenerationSummary(0, 0, 0, 0, System.currentTimeMillis() - startedAt);
+        }
+
+        int workers = Math.max(1, Math.min(properties.getParallelism(), partitions.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("slot-gen-"));
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger created = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>(partitions.size());
+            for (int i = 0; i < partitions.size(); i++) {
+                int index = i;
+                List<Long> partition = partitions.get(i);
+                futures.add(executor.submit(() -> {
+                    long partitionStartedAt = System.currentTimeMillis();
+                    try {
+                        int count = task.applyAsInt(partition);
+                        created.addAndGet(count);
+                        if (job != null) {
+                            job.partitionCompleted(count);
+                        }
+                        log.info("DailySlotGenerator: partition {}/{} ({} doctors) created {} slots in {} ms [{}/{} done]",
+                                index + 1, partitions.size(), partition.size(), count,
+                                System.currentTimeMillis() - partitionStartedAt, completed.incrementAndGet(),
+                                partitions.size());
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        if (job != null) {
+                            job.partitionFailed();
+                        }
+                        log.error("DailySlotGenerator: partition {}/{} (doctors {}..{}) failed after {} ms [{}/{} done]: {}",
+                                index + 1, partitions.size(), partition.get(0), partition.get(partition.size() - 1),
+                                System.currentTimeMillis() - partitionStartedAt, completed.incrementAndGet(),
+                                partitions.size(), e.getMessage(), e);
+                    }
+                }));
             }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("DailySlotGenerator: interrupted with {}/{} partitions done", completed.get(), partitions.size());
+        } catch (ExecutionException e) {
+            log.error("DailySlotGenerator: unexpected worker failure: {}", e.getMessage(), e);
+        } finally {
+            executor.shutdownNow();
         }
-        log.info("DailySlotGenerator: finished generating slots");
+        return new SlotGenerationSummary(doctorIds.size(), partitions.size(), failed.get(), created.get(),
+                System.currentTimeMillis() - startedAt);
     }
 
-    @Async
-    public void generateDailyAsync() {
-        generateDaily();
+    private static List<List<Long>> partition(List<Long> ids, int size) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        if (size <= 0 || size >= ids.size()) {
+            return List.of(ids);
+        }
+        List<List<Long>> partitions = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += size) {
+            partitions.add(ids.subList(i, Math.min(ids.size(), i + size)));
+        }
+        return partitions;
     }
 }
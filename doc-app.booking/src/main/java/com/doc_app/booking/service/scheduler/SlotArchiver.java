@@ -0,0 +1,61 @@
+package com.doc_app.booking.service.scheduler;
+
+import com.doc_app.booking.config.SlotArchiveProperties;
+import com.doc_app.booking.repository.SlotArchiveRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+/**
+ * Moves slots older than slots.archive.retention-days to slot_archive, one
+ * batch per transaction, so the slots table only holds the recent past and the
+ * booking horizon.
+ */
+@Component
+@Slf4j
+public class SlotArchiver {
+
+    private final SlotArchiveRepository archiveRepository;
+    private final SlotArchiveProperties properties;
+    private final TransactionTemplate batchTransaction;
+
+    public SlotArchiver(SlotArchiveRepository archiveRepository, SlotArchiveProperties properties,
+            PlatformTransactionManager transactionManager) {
+        this.archiveRepository = archiveRepository;
+        this.properties = properties;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${slots.archive.cron}")
+    public void archiveDaily() {
+        if (!properties.isEnabled()) {
+            log.debug("SlotArchiver: archiving disabled");
+            return;
+        }
+        archive(LocalDate.now().minusDays(Math.max(0, properties.getRetentionDays())));
+    }
+
+    /**
+     * Archives every slot dated before {@code cutoff}.
+     *
+     * @return the number of slots archived
+     */
+    public int archive(LocalDate cutoff) {
+        long started = System.currentTimeMillis();
+        int batchSize = Math.max(1, properties.getBatchSize());
+        int total = 0;
+        int moved;
+        do {
+            Integer count = batchTransaction.execute(status -> archiveRepository.archiveBatch(cutoff, batchSize));
+            moved = count == null ? 0 : count;
+            total += moved;
+        } while (moved > 0);
+        log.info("SlotArchiver: archived {} slots dated before {} in {} ms", total, cutoff,
+                System.currentTimeMillis() - started);
+        return total;
+    }
+}
@@ -0,0 +1,131 @@
+package com.doc_app.booking.service.scheduler;
+
+import com.doc_app.booking.dto.SlotGenerationJobDTO;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A background slot generation run and its live progress counters. Counters
+ * are updated by the generator's worker threads while the job runs.
+ */
+public class SlotGenerationJob {
+
+    public enum Type {
+        /** explicit date range */
+        RANGE,
+        /** nightly horizon extension triggered manually */
+        DAILY
+    }
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Type type;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    private final AtomicInteger doctors = new AtomicInteger();
+    private final AtomicInteger partitions = new AtomicInteger();
+    private final AtomicInteger completedPartitions = new AtomicInteger();
+    private final AtomicInteger failedPartitions = new AtomicInteger();
+    private final AtomicInteger slotsCreated = new AtomicInteger();
+
+    public SlotGenerationJob(Type type, LocalDate from, LocalDate to) {
+        this.type = type;
+        this.from = from;
+        this.to = to;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    void started() {
+        startedAt = LocalDateTime.now();
+        status = Status.RUNNING;
+    }
+
+    void planned(int doctorCount, int partitionCount) {
+        doctors.set(doctorCount);
+        partitions.set(partitionCount);
+    }
+
+    void partitionCompleted(int created) {
+        slotsCreated.addAndGet(created);
+        completedPartitions.incrementAndGet();
+    }
+
+    void partitionFailed() {
+        failedPartitions.incrementAndGet();
+        completedPartitions.incrementAndGet();
+    }
+
+    void completed() {
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    void failed(Exception e) {
+        error = e.getMessage();
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+    public SlotGenerationJobDTO toDTO() {
+        SlotGenerationJobDTO dto = new SlotGenerationJobDTO();
+        dto.setId(id);
+        dto.setType(type.name());
+        dto.setStatus(status.name());
+        dto.setFrom(from);
+        dto.setTo(to);
+        dto.setSubmittedAt(submittedAt);
+        dto.setStartedAt(startedAt);
+        dto.setFinishedAt(finishedAt);
+        dto.setDoctors(doctors.get());
+        dto.setPartitions(partitions.get());
+        dto.setCompletedPartitions(completedPartitions.get());
+        dto.setFailedPartitions(failedPartitions.get());
+        dto.setSlotsCreated(slotsCreated.get());
+        dto.setError(error);
+        return dto;
+    }
+}
@@ -0,0 +1,142 @@
+package com.doc_app.booking.service.scheduler;
+
+import com.doc_app.booking.config.SlotsGeneratorProperties;
+import com.doc_app.booking.exception.BusinessException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs slot generation in the background and keeps track of the submitted
+ * jobs so callers can poll their progress. Jobs run one at a time in
+ * submission order; each job still fans out over the generator's partition
+ * pool. At most {@link #MAX_QUEUED_JOBS} jobs wait behind the running one;
+ * further submissions are rejected. Job state is kept in memory only and the
+ * oldest finished jobs are dropped once {@link #MAX_FINISHED_JOBS} is exceeded.
+ * <p>
+ * In VIRTUAL mode slots are computed from the templates and only stored when
+ * booked, so generation jobs are refused.
+ */
+@Service
+@Slf4j
+public class SlotGenerationJobService {
+
+    static final int MAX_FINISHED_JOBS = 100;
+
+    static final int MAX_RANGE_DAYS = 366;
+
+    static final int MAX_QUEUED_JOBS = 10;
+
+    private final DailySlotGenerator generator;
+    private final SlotsGeneratorProperties properties;
+    private final Map<String, SlotGenerationJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAX_QUEUED_JOBS), new CustomizableThreadFactory("slot-job-"),
+            new ThreadPoolExecutor.AbortPolicy());
+
+    public SlotGenerationJobService(DailySlotGenerator generator, SlotsGeneratorProperties properties) {
+        this.generator = generator;
+        this.properties = properties;
+    }
+
+    /**
+     * Queues generation of all doctors' slots between {@code from} and
+     * {@code to} (inclusive).
+     */
+    public SlotGenerationJob submitRange(LocalDate from, LocalDate to) {
+        requireMaterialized();
+        if (to.isBefore(from)) {
+            throw new BusinessException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new BusinessException("Generation range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+        SlotGenerationJob job = new SlotGenerationJob(SlotGenerationJob.Type.RANGE, from, to);
+        return submit(job, () -> generator.generateRange(from, to, job));
+    }
+
+    /**
+     * Queues the nightly horizon extension, e.g. after a backfill.
+     */
+    public SlotGenerationJob submitDaily() {
+        requireMaterialized();
+        LocalDate today = LocalDate.now();
+        SlotGenerationJob job = new SlotGenerationJob(SlotGenerationJob.Type.DAILY, today,
+                today.plusDays(Math.max(0, properties.getDaysAhead() - 1L)));
+        return submit(job, () -> generator.generateDaily(job));
+    }
+
+    public Optional<SlotGenerationJob> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Known jobs, most recently submitted first.
+     */
+    public List<SlotGenerationJob> list() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing(SlotGenerationJob::getSubmittedAt).reversed())
+                .toList();
+    }
+
+    private void requireMaterialized() {
+        if (properties.isVirtual()) {
+            throw new BusinessException("Slots are not generated in VIRTUAL mode", 409);
+        }
+    }
+
+    private SlotGenerationJob submit(SlotGenerationJob job, Runnable work) {
+        evictFinished();
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, work));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw new BusinessException("Too many slot generation jobs queued, try again later", 429);
+        }
+        return job;
+    }
+
+    private void run(SlotGenerationJob job, Runnable work) {
+        job.started();
+        log.info("Slot generation job {} ({} {}..{}) started", job.getId(), job.getType(), job.getFrom(),
+                job.getTo());
+        try {
+            work.run();
+            job.completed();
+            log.info("Slot generation job {} completed", job.getId());
+        } catch (Exception e) {
+            job.failed(e);
+            log.error("Slot generation job {} failed: {}", job.getId(), e.getMessage(), e);
+        }
+    }
+
+    private void evictFinished() {
+        List<SlotGenerationJob> finished = jobs.values().stream()
+                .filter(SlotGenerationJob::isFinished)
+                .sorted(Comparator.comparing(SlotGenerationJob::getFinishedAt))
+                .toList();
+        for (int i = 0; i < finished.size() - MAX_FINISHED_JOBS + 1; i++) {
+            jobs.remove(finished.get(i).getId());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,8 @@
+package com.doc_app.booking.service.scheduler;
+
+/**
+ * Outcome of a partitioned slot generation run.
+ */
+public record SlotGenerationSummary(int doctors, int partitions, int failedPartitions, int slotsCreated,
+        long elapsedMillis) {
+}
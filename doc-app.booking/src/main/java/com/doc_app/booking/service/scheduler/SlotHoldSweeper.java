@@ -0,0 +1,96 @@
+package com.doc_app.booking.service.scheduler;
+
+import com.doc_app.booking.config.BookingProperties;
+import com.doc_app.booking.repository.AppointmentRepository;
+import com.doc_app.booking.repository.SlotRepository;
+import com.doc_app.booking.repository.projection.ExpiredHoldView;
+import com.doc_app.booking.service.slot.SlotAvailabilityChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Releases slot holds that were not confirmed in time: the hold is cancelled
+ * and its slot goes back on offer (or stays blocked on a leave day). Expired
+ * holds are read oldest first from the hold_expires_at index, one batch per
+ * transaction, so the cost follows the number of expired holds rather than
+ * the size of the appointments table.
+ */
+@Component
+@Slf4j
+public class SlotHoldSweeper {
+
+    private final AppointmentRepository appointmentRepository;
+    private final SlotRepository slotRepository;
+    private final BookingProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate batchTransaction;
+
+    public SlotHoldSweeper(AppointmentRepository appointmentRepository, SlotRepository slotRepository,
+            BookingProperties properties, ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager) {
+        this.appointmentRepository = appointmentRepository;
+        this.slotRepository = slotRepository;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${booking.hold-sweep-cron}")
+    public void sweepExpired() {
+        sweep(LocalDateTime.now());
+    }
+
+    /**
+     * Releases every hold expired at {@code now}.
+     *
+     * @return the number of holds released
+     */
+    public int sweep(LocalDateTime now) {
+        int batchSize = Math.max(1, properties.getHoldSweepBatchSize());
+        int total = 0;
+        BatchResult batch;
+        do {
+            batch = batchTransaction.execute(status -> releaseBatch(now, batchSize));
+            total += batch.released();
+        } while (batch.read() == batchSize);
+        if (total > 0) {
+            log.info("SlotHoldSweeper: released {} expired holds", total);
+        }
+        return total;
+    }
+
+    private BatchResult releaseBatch(LocalDateTime now, int batchSize) {
+        List<ExpiredHoldView> holds = appointmentRepository.findExpiredHolds(now, PageRequest.of(0, batchSize));
+        if (holds.isEmpty()) {
+            return new BatchResult(0, 0);
+        }
+        // a hold confirmed since the read is skipped here, and its slot then still has a live appointment
+        int released = appointmentRepository.expireHolds(
+                holds.stream().map(ExpiredHoldView::getAppointmentId).toList(), now);
+        List<Long> slotIds = holds.stream().map(ExpiredHoldView::getSlotId).toList();
+        slotRepository.blockReleasedOnLeave(slotIds);
+        slotRepository.releaseHeld(slotIds);
+
+        Map<Long, Set<LocalDate>> byDoctor = holds.stream()
+                .collect(Collectors.groupingBy(ExpiredHoldView::getDoctorId,
+                        Collectors.mapping(ExpiredHoldView::getDate, Collectors.toSet())));
+        byDoctor.forEach((doctorId, dates) -> eventPublisher.publishEvent(
+                SlotAvailabilityChangedEvent.forDays(doctorId, dates, "hold expiry")));
+        return new BatchResult(holds.size(), released);
+    }
+
+    private record BatchResult(int read, int released) {
+    }
+}
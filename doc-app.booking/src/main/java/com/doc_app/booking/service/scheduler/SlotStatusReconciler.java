@@ -0,0 +1,54 @@
+package com.doc_app.booking.service.scheduler;
+
+import com.doc_app.booking.config.SlotsGeneratorProperties;
+import com.doc_app.booking.repository.SlotJdbcRepository;
+import com.doc_app.booking.repository.SlotJdbcRepository.SlotStatusDrift;
+import com.doc_app.booking.service.slot.SlotAvailabilityChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Repairs slot statuses that drifted from their appointments, e.g. after
+ * appointments were edited directly in the database or a write path missed
+ * the slot. Only today's and future slots are checked; past slots no longer
+ * affect availability.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SlotStatusReconciler {
+
+    private final SlotJdbcRepository slotJdbcRepository;
+    private final SlotsGeneratorProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Scheduled(cron = "${slots.generator.reconcile-cron}")
+    @Transactional
+    public int reconcile() {
+        List<SlotStatusDrift> drifts = slotJdbcRepository.findStatusDrift(LocalDate.now());
+        if (drifts.isEmpty()) {
+            log.debug("SlotStatusReconciler: no slot status drift");
+            return 0;
+        }
+        List<SlotStatusDrift> applied = slotJdbcRepository.applyStatus(drifts, properties.getBatchSize());
+        log.warn("SlotStatusReconciler: fixed {} of {} drifted slot statuses: {}", applied.size(), drifts.size(),
+                applied.stream().limit(20).collect(Collectors.toList()));
+
+        Map<Long, Set<LocalDate>> byDoctor = applied.stream()
+                .collect(Collectors.groupingBy(SlotStatusDrift::doctorId,
+                        Collectors.mapping(SlotStatusDrift::date, Collectors.toSet())));
+        byDoctor.forEach((doctorId, dates) -> eventPublisher.publishEvent(
+                SlotAvailabilityChangedEvent.forDays(doctorId, dates, "reconcile")));
+        return applied.size();
+    }
+}
@@ -0,0 +1,182 @@
+package com.doc_app.booking.service.slot;
+
+import com.doc_app.booking.config.AvailabilityCacheProperties;
+import com.doc_app.booking.dto.SlotDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of a doctor-day's slot list as returned by
+ * {@code SlotService.getAvailableSlots}. Entries expire after a TTL and are
+ * dropped when a {@link SlotAvailabilityChangedEvent} is committed.
+ * <p>
+ * A load that overlaps an invalidation of its own doctor-day is returned to
+ * its caller but not cached, so a list read before a booking committed cannot
+ * outlive the booking's invalidation. Changes to other days do not affect it.
+ * <p>
+ * {@link SlotDTO} is mutable, so the cache keeps its own copies and hands every
+ * caller fresh ones; a caller changing a slot cannot alter what others read.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AvailabilityCache {
+
+    private final AvailabilityCacheProperties properties;
+
+    private final Map<DoctorDay, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    // loads in progress; an invalidation of their doctor-day marks them stale so they are not cached
+    private final Set<Load> loading = new HashSet<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Returns the cached list for the doctor-day, loading it with
+     * {@code loader} on a miss. The returned list and its slots belong to the
+     * caller.
+     */
+    public List<SlotDTO> get(Long doctorId, LocalDate date, Supplier<List<SlotDTO>> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        DoctorDay key = new DoctorDay(doctorId, date);
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt - now > 0) {
+                hits.incrementAndGet();
+                return copyOf(entry.slots);
+            }
+        }
+
+        misses.incrementAndGet();
+        Load load = new Load(key);
+        synchronized (entries) {
+            loading.add(load);
+        }
+        List<SlotDTO> slots;
+        try {
+            slots = loader.get();
+        } finally {
+            synchronized (entries) {
+                loading.remove(load);
+            }
+        }
+        synchronized (entries) {
+            if (!load.stale) {
+                entries.put(key, new Entry(copyOf(slots), now + TimeUnit.SECONDS.toNanos(properties.getTtlSeconds())));
+                evictOverflow();
+            }
+        }
+        return slots;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(SlotAvailabilityChangedEvent event) {
+        int removed = 0;
+        synchronized (entries) {
+            for (Load load : loading) {
+                if (load.key.doctorId().equals(event.doctorId())
+                        && (event.allDates() || event.dates().contains(load.key.date()))) {
+                    load.stale = true;
+                }
+            }
+            if (event.allDates()) {
+                var it = entries.keySet().iterator();
+                while (it.hasNext()) {
+                    if (it.next().doctorId().equals(event.doctorId())) {
+                        it.remove();
+                        removed++;
+                    }
+                }
+            } else {
+                for (LocalDate date : event.dates()) {
+                    if (entries.remove(new DoctorDay(event.doctorId(), date)) != null) {
+                        removed++;
+                    }
+                }
+            }
+        }
+        invalidations.addAndGet(removed);
+        log.debug("Availability of doctor {} changed ({}), dropped {} cached days", event.doctorId(),
+                event.reason(), removed);
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            loading.forEach(load -> load.stale = true);
+            entries.clear();
+        }
+    }
+
+    public Stats getStats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(hits.get(), misses.get(), evictions.get(), invalidations.get(), size,
+                properties.getMaxEntries());
+    }
+
+    private static List<SlotDTO> copyOf(List<SlotDTO> slots) {
+        List<SlotDTO> copies = new ArrayList<>(slots.size());
+        for (SlotDTO slot : slots) {
+            copies.add(new SlotDTO(slot.getSlotId(), slot.getStart(), slot.getEnd(), slot.isAvailable(),
+                    slot.getStatus(), slot.getAppointmentStatus()));
+        }
+        return copies;
+    }
+
+    private void evictOverflow() {
+        var it = entries.entrySet().iterator();
+        while (entries.size() > properties.getMaxEntries() && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * @param hits          lookups served from the cache
+     * @param misses        lookups that went to the database
+     * @param evictions     entries dropped because the cache was full
+     * @param invalidations entries dropped by availability change events
+     * @param size          current number of cached doctor-days
+     * @param maxEntries    configured capacity
+     */
+    public record Stats(long hits, long misses, long evictions, long invalidations, int size, int maxEntries) {
+    }
+
+    private record DoctorDay(Long doctorId, LocalDate date) {
+    }
+
+    private record Entry(List<SlotDTO> slots, long expiresAt) {
+    }
+
+    // identity matters: two concurrent loads of the same day are tracked separately
+    private static final class Load {
+        private final DoctorDay key;
+        private boolean stale; // guarded by entries
+
+        Load(DoctorDay key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package com.doc_app.booking.service.slot;
+
+import com.doc_app.booking.config.AvailabilityCacheProperties;
+import com.doc_app.booking.config.SlotsGeneratorProperties;
+import com.doc_app.booking.repository.SlotJdbcRepository;
+import com.doc_app.booking.repository.SlotJdbcRepository.SlotState;
+import com.doc_app.booking.repository.SlotRepository;
+import com.doc_app.booking.repository.projection.SlotStatusView;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * In-memory availability of the booking horizon (today through
+ * slots.generator.days-ahead), one compact {@link DayIndex} per doctor-day,
+ * enabled with slots.cache.index-enabled in MATERIALIZED mode.
+ * <p>
+ * The index is warmed with one streaming scan of the slots table at startup
+ * and rebuilt nightly. Since the slot status column is authoritative the
+ * appointments table is not read. Writes go to the database first; once any
+ * change commits (booking, leave, template, reconciliation) the affected days
+ * are dropped and the next read reloads them. Days are not patched from the
+ * event's slot statuses: after-commit listeners of concurrent transactions can
+ * run out of commit order, and an older absolute status applied last would
+ * stick until the consistency check. A reload always reads committed state,
+ * and a load that overlaps a change of its own doctor-day is not kept;
+ * changes to other days do not affect it. Days missing from the index
+ * are loaded on first read; days without slots are not kept, so the caller
+ * falls back to the regular path that generates them.
+ * <p>
+ * A periodic consistency check compares the index with the database and drops
+ * days that disagree.
+ */
+@Component
+@Slf4j
+public class AvailabilityIndex {
+
+    // ConcurrentHashMap node plus DoctorDay key with its Long and LocalDate
+    private static final long ENTRY_BYTES = 96;
+
+    private final SlotRepository slotRepository;
+    private final SlotJdbcRepository slotJdbcRepository;
+    private final AvailabilityCacheProperties cacheProperties;
+    private final SlotsGeneratorProperties generatorProperties;
+    private final TransactionTemplate readTransaction;
+    private final ExecutorService warmUpExecutor = Executors
+            .newSingleThreadExecutor(new CustomizableThreadFactory("availability-index-"));
+
+    private final ConcurrentMap<DoctorDay, DayIndex> days = new ConcurrentHashMap<>();
+
+    // loads in progress; a change of their doctor-day marks them stale so they are not kept
+    private final Set<Load> loading = ConcurrentHashMap.newKeySet();
+
+    // doctor-days and doctors changed while a scan is running, dropped when it ends
+    private final Set<DoctorDay> changedDuringScan = ConcurrentHashMap.newKeySet();
+    private final Set<Long> doctorsChangedDuringScan = ConcurrentHashMap.newKeySet();
+    private volatile boolean scanning;
+
+    private final Object maintenanceLock = new Object();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong mismatches = new AtomicLong();
+    private volatile long lastWarmUpMillis = -1;
+
+    public AvailabilityIndex(SlotRepository slotRepository, SlotJdbcRepository slotJdbcRepository,
+            AvailabilityCacheProperties cacheProperties, SlotsGeneratorProperties generatorProperties,
+            PlatformTransactionManager transactionManager) {
+        this.slotRepository = slotRepository;
+        this.slotJdbcRepository = slotJdbcRepository;
+        this.cacheProperties = cacheProperties;
+        this.generatorProperties = generatorProperties;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    public boolean isActive() {
+        return cacheProperties.isIndexEnabled() && !generatorProperties.isVirtual();
+    }
+
+    /**
+     * The doctor-day's slots ordered by start time, or null when the index is
+     * inactive, the date is outside the horizon or the day has no slots.
+     */
+    public List<SlotStatusView> get(Long doctorId, LocalDate date) {
+        if (!isActive() || !inHorizon(date)) {
+            return null;
+        }
+        DoctorDay key = new DoctorDay(doctorId, date);
+        DayIndex day = days.get(key);
+        if (day != null) {
+            hits.incrementAndGet();
+            return day.rows(date);
+        }
+
+        misses.incrementAndGet();
+        Load load = new Load(key);
+        loading.add(load);
+        try {
+            List<SlotStatusView> rows = slotRepository.findStatusByDoctorIdAndDate(doctorId, date);
+            if (rows.isEmpty()) {
+                return null;
+            }
+            DayIndex loaded = DayIndex.of(rows);
+            days.putIfAbsent(key, loaded);
+            // put first, then validate: a change committed meanwhile may have missed this entry
+            if (load.stale || scanning) {
+                days.remove(key, loaded);
+            }
+            return rows;
+        } finally {
+            loading.remove(load);
+        }
+    }
+
+    /**
+     * The doctor-day as a {@link DaySchedule} if it is indexed, or null; unlike
+     * {@link #get} a day that is not indexed is not loaded.
+     */
+    public DaySchedule getSchedule(Long doctorId, LocalDate date) {
+        if (!isActive() || !inHorizon(date)) {
+            return null;
+        }
+        DayIndex day = days.get(new DoctorDay(doctorId, date));
+        if (day == null) {
+            return null;
+        }
+        hits.incrementAndGet();
+        return day.toSchedule();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(SlotAvailabilityChangedEvent event) {
+        if (!isActive()) {
+            return;
+        }
+        // mark loads before dropping days, so a load that stored its day after the drop sees the mark
+        for (Load load : loading) {
+            if (load.key.doctorId().equals(event.doctorId())
+                    && (event.allDates() || event.dates().contains(load.key.date()))) {
+                load.stale = true;
+            }
+        }
+        if (event.allDates()) {
+            if (scanning) {
+                doctorsChangedDuringScan.add(event.doctorId());
+            }
+            invalidations.addAndGet(removeDoctor(event.doctorId()));
+            return;
+        }
+        for (LocalDate date : event.dates()) {
+            DoctorDay key = new DoctorDay(event.doctorId(), date);
+            if (scanning) {
+                changedDuringScan.add(key);
+            }
+            if (days.remove(key) != null) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStartup() {
+        if (isActive()) {
+            warmUpExecutor.submit(this::warmUp);
+        }
+    }
+
+    /**
+     * Replaces the index with a fresh scan of the horizon; past days are
+     * dropped. Runs nightly, after the day rolls over.
+     */
+    @Scheduled(cron = "0 5 0 * * ?") // Run at 00:05 AM every day
+    public void warmUp() {
+        if (!isActive()) {
+            return;
+        }
+        synchronized (maintenanceLock) {
+            long started = System.currentTimeMillis();
+            Map<DoctorDay, DayIndex> scanned = scanHorizon();
+            days.keySet().removeIf(key -> !scanned.containsKey(key));
+            scanned.forEach(days::put);
+            int dropped = finishScan();
+            lastWarmUpMillis = System.currentTimeMillis() - started;
+            Stats stats = getStats();
+            log.info("Availability index warmed: {} doctor-days, {} slots, ~{} KB ({} bytes per doctor-day) "
+                    + "in {} ms, {} days changed during the scan", stats.doctorDays(), stats.slots(),
+                    stats.bytes() / 1024, stats.bytesPerDoctorDay(), lastWarmUpMillis, dropped);
+        }
+    }
+
+    /**
+     * Compares every indexed day with the database and drops the days that
+     * differ (or are gone), so they are reloaded on the next read.
+     *
+     * @return the number of doctor-days that were dropped
+     */
+    @Scheduled(cron = "0 30 * * * ?") // Run at half past every hour
+    public int checkConsistency() {
+        if (!isActive()) {
+            return 0;
+        }
+        synchronized (maintenanceLock) {
+            Map<DoctorDay, DayIndex> scanned = scanHorizon();
+            int dropped = 0;
+            for (Map.Entry<DoctorDay, DayIndex> entry : days.entrySet()) {
+                DayIndex stored = scanned.get(entry.getKey());
+                if ((stored == null || !stored.sameAs(entry.getValue()))
+                        && days.remove(entry.getKey(), entry.getValue())) {
+                    dropped++;
+                }
+            }
+            finishScan();
+            mismatches.addAndGet(dropped);
+            if (dropped > 0) {
+                log.warn("Availability index consistency check dropped {} stale doctor-days", dropped);
+            } else {
+                log.debug("Availability index consistency check found no stale doctor-days");
+            }
+            return dropped;
+        }
+    }
+
+    public Stats getStats() {
+        int doctorDays = 0;
+        long slots = 0;
+        long bytes = 0;
+        for (DayIndex day : days.values()) {
+            doctorDays++;
+            slots += day.size();
+            bytes += ENTRY_BYTES + day.bytes();
+        }
+        return new Stats(isActive(), doctorDays, slots, bytes, doctorDays == 0 ? 0 : bytes / doctorDays,
+                hits.get(), misses.get(), invalidations.get(), mismatches.get(), lastWarmUpMillis);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        warmUpExecutor.shutdownNow();
+    }
+
+    private Map<DoctorDay, DayIndex> scanHorizon() {
+        LocalDate from = LocalDate.now();
+        LocalDate to = horizonEnd(from);
+        scanning = true;
+        Map<DoctorDay, DayIndex> scanned = new HashMap<>();
+        DayCollector collector = new DayCollector(scanned::put);
+        readTransaction.executeWithoutResult(status -> slotJdbcRepository.scan(from, to, collector));
+        collector.flush();
+        return scanned;
+    }
+
+    // drops whatever changed while the scan was reading; returns how many days that removed
+    private int finishScan() {
+        scanning = false;
+        int dropped = 0;
+        for (DoctorDay key : changedDuringScan) {
+            if (days.remove(key) != null) {
+                dropped++;
+            }
+        }
+        for (Long doctorId : doctorsChangedDuringScan) {
+            dropped += removeDoctor(doctorId);
+        }
+        changedDuringScan.clear();
+        doctorsChangedDuringScan.clear();
+        return dropped;
+    }
+
+    private int removeDoctor(Long doctorId) {
+        int removed = 0;
+        var it = days.keySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().doctorId().equals(doctorId)) {
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private boolean inHorizon(LocalDate date) {
+        LocalDate today = LocalDate.now();
+        return !date.isBefore(today) && !date.isAfter(horizonEnd(today));
+    }
+
+    private LocalDate horizonEnd(LocalDate today) {
+        return today.plusDays(Math.max(1, generatorProperties.getDaysAhead()) - 1L);
+    }
+
+    /**
+     * Groups the (doctor, date, start time) ordered scan into days.
+     */
+    private static final class DayCollector implements Consumer<SlotState> {
+        private final BiConsumer<DoctorDay, DayIndex> sink;
+        private DoctorDay current;
+        private DayIndex.Builder builder = new DayIndex.Builder();
+
+        DayCollector(BiConsumer<DoctorDay, DayIndex> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void accept(SlotState slot) {
+            DoctorDay key = new DoctorDay(slot.doctorId(), slot.date());
+            if (!key.equals(current)) {
+                flush();
+                current = key;
+            }
+            builder.add(slot.slotId(), slot.startTime(), slot.endTime(), slot.status());
+        }
+
+        void flush() {
+            if (current != null && !builder.isEmpty()) {
+                sink.accept(current, builder.build());
+            }
+            builder = new DayIndex.Builder();
+        }
+    }
+
+    /**
+     * @param active            whether reads are served from the index
+     * @param doctorDays        indexed doctor-days
+     * @param slots             indexed slots
+     * @param bytes             estimated heap used by the index
+     * @param bytesPerDoctorDay estimated heap per doctor-day
+     * @param hits              reads served from memory
+     * @param misses            reads that loaded the day from the database
+     * @param invalidations     days dropped by change events
+     * @param mismatches        days dropped by the consistency check
+     * @param lastWarmUpMillis  duration of the last warm-up, -1 before the first
+     */
+    public record Stats(boolean active, int doctorDays, long slots, long bytes, long bytesPerDoctorDay, long hits,
+            long misses, long invalidations, long mismatches, long lastWarmUpMillis) {
+    }
+
+    private record DoctorDay(Long doctorId, LocalDate date) {
+    }
+
+    // identity matters: two concurrent loads of the same day are tracked separately
+    private static final class Load {
+        private final DoctorDay key;
+        private volatile boolean stale;
+
+        Load(DoctorDay key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.doc_app.booking.service.slot;
+
+import com.doc_app.booking.model.SlotStatus;
+import com.doc_app.booking.repository.projection.SlotStatusView;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One doctor-day of the {@link AvailabilityIndex}: the day's slots as parallel
+ * primitive arrays ordered by start time. Instances are immutable.
+ */
+final class DayIndex {
+
+    private static final SlotStatus[] STATUSES = SlotStatus.values();
+
+    // object header plus four array references, compressed oops
+    private static final long OBJECT_BYTES = 32;
+
+    private final long[] slotIds;
+    private final short[] starts;
+    private final short[] ends;
+    private final byte[] statuses;
+
+    private DayIndex(long[] slotIds, short[] starts, short[] ends, byte[] statuses) {
+        this.slotIds = slotIds;
+        this.starts = starts;
+        this.ends = ends;
+        this.statuses = statuses;
+    }
+
+    static DayIndex of(List<? extends SlotStatusView> rows) {
+        Builder builder = new Builder();
+        for (SlotStatusView row : rows) {
+            builder.add(row.getSlotId(), row.getStartTime(), row.getEndTime(), row.getStatus());
+        }
+        return builder.build();
+    }
+
+    int size() {
+        return slotIds.length;
+    }
+
+    List<SlotStatusView> rows(LocalDate date) {
+        List<SlotStatusView> rows = new ArrayList<>(slotIds.length);
+        for (int i = 0; i < slotIds.length; i++) {
+            rows.add(new Row(slotIds[i], date, LocalTime.ofSecondOfDay(starts[i] * 60L),
+                    LocalTime.ofSecondOfDay(ends[i] * 60L), STATUSES[statuses[i]]));
+        }
+        return rows;
+    }
+
+    /**
+     * The day as a bitmap schedule; slots that are not AVAILABLE are occupied.
+     */
+    DaySchedule toSchedule() {
+        DaySchedule schedule = new DaySchedule();
+        for (int i = 0; i < slotIds.length; i++) {
+            schedule.addSlot(starts[i], ends[i], STATUSES[statuses[i]] != SlotStatus.AVAILABLE);
+        }
+        return schedule;
+    }
+
+    /**
+     * Estimated heap footprint of this day: the object and its four arrays
+     * (16 byte array headers, payload padded to 8 bytes).
+     */
+    long bytes() {
+        int n = slotIds.length;
+        return OBJECT_BYTES + arrayBytes(8L * n) + 2 * arrayBytes(2L * n) + arrayBytes(n);
+    }
+
+    boolean sameAs(DayIndex other) {
+        return Arrays.equals(slotIds, other.slotIds)
+                && Arrays.equals(starts, other.starts)
+                && Arrays.equals(ends, other.ends)
+                && Arrays.equals(statuses, other.statuses);
+    }
+
+    private static long arrayBytes(long payload) {
+        return 16 + ((payload + 7) & ~7L);
+    }
+
+    /**
+     * Collects one day's slots; they must be added in start time order.
+     */
+    static final class Builder {
+        private long[] slotIds = new long[32];
+        private short[] starts = new short[32];
+        private short[] ends = new short[32];
+        private byte[] statuses = new byte[32];
+        private int size;
+
+        Builder add(long slotId, LocalTime start, LocalTime end, SlotStatus status) {
+            if (size == slotIds.length) {
+                int capacity = size * 2;
+                slotIds = Arrays.copyOf(slotIds, capacity);
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                statuses = Arrays.copyOf(statuses, capacity);
+            }
+            slotIds[size] = slotId;
+            starts[size] = (short) DaySchedule.minuteOf(start);
+            ends[size] = (short) DaySchedule.minuteOf(end);
+            statuses[size] = (byte) status.ordinal();
+            size++;
+            return this;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        DayIndex build() {
+            return new DayIndex(Arrays.copyOf(slotIds, size), Arrays.copyOf(starts, size),
+                    Arrays.copyOf(ends, size), Arrays.copyOf(statuses, size));
+        }
+    }
+
+    private record Row(Long slotId, LocalDate date, LocalTime startTime, LocalTime endTime, SlotStatus status)
+            implements SlotStatusView {
+
+        @Override
+        public Long getSlotId() {
+            return slotId;
+        }
+
+        @Override
+        public LocalDate getDate() {
+            return date;
+        }
+
+        @Override
+        public LocalTime getStartTime() {
+            return startTime;
+        }
+
+        @Override
+        public LocalTime getEndTime() {
+            return endTime;
+        }
+
+        @Override
+        public SlotStatus getStatus() {
+            return status;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.doc_app.booking.service.slot;
+
+import com.doc_app.booking.model.SlotTemplate;
+import com.doc_app.booking.repository.SlotJdbcRepository.SlotRow;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A doctor's slots for one day as minute-of-day bitmaps.
+ * <p>
+ * Three {@code long[]} words arrays of 1440 bits each hold the minutes at which
+ * a slot starts, the minutes at which a slot ends and the start minutes of
+ * occupied slots. Template expansion, leave subtraction, appointment overlay
+ * and free-slot queries are bit operations on these arrays; objects are only
+ * created when the day is turned into {@link SlotRow}s.
+ * <p>
+ * Slot windows of one day must not overlap, which
+ * {@code SlotTemplateService} enforces for the templates of a weekday.
+ * Instances are not thread-safe.
+ */
+public final class DaySchedule {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final int WORDS = (MINUTES_PER_DAY + 63) >>> 6;
+
+    private final long[] starts = new long[WORDS];
+    private final long[] ends = new long[WORDS];
+    private final long[] occupied = new long[WORDS];
+
+    /**
+     * Expands the given templates into a new schedule.
+     */
+    public static DaySchedule of(Collection<SlotTemplate> templates) {
+        DaySchedule schedule = new DaySchedule();
+        for (SlotTemplate t : templates) {
+            schedule.addWindow(minuteOf(t.getStartTime()), minuteOf(t.getEndTime()), t.getSlotDurationMinutes());
+        }
+        return schedule;
+    }
+
+    public static int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    /**
+     * Adds back-to-back slots of {@code duration} minutes between
+     * {@code startMinute} and {@code endMinute}. A trailing remainder shorter
+     * than one slot is dropped.
+     */
+    public DaySchedule addWindow(int startMinute, int endMinute, int duration) {
+        if (duration <= 0) {
+            return this;
+        }
+        for (int m = startMinute; m + duration <= endMinute; m += duration) {
+            set(starts, m);
+            set(ends, m + duration);
+        }
+        return this;
+    }
+
+    /**
+     * Adds one stored slot, occupied or not.
+     */
+    public DaySchedule addSlot(int startMinute, int endMinute, boolean occupiedSlot) {
+        set(starts, startMinute);
+        set(ends, endMinute);
+        if (occupiedSlot) {
+            set(occupied, startMinute);
+        }
+        return this;
+    }
+
+    /**
+     * Removes every slot starting in {@code [fromMinute, toMinute)}, e.g. for a
+     * leave. Occupancy of removed slots is dropped as well.
+     */
+    public void subtract(int fromMinute, int toMinute) {
+        for (int m = nextSetBit(starts, fromMinute); m >= 0 && m < toMinute; m = nextSetBit(starts, m + 1)) {
+            clear(ends, endOf(m));
+            clear(starts, m);
+            clear(occupied, m);
+        }
+    }
+
+    /**
+     * Removes all slots of the day (full-day leave).
+     */
+    public void clear() {
+        Arrays.fill(starts, 0L);
+        Arrays.fill(ends, 0L);
+        Arrays.fill(occupied, 0L);
+    }
+
+    /**
+     * Marks the slot containing {@code minute} as occupied.
+     *
+     * @return false when no slot contains that minute
+     */
+    public boolean occupy(int minute) {
+        int start = slotStartContaining(minute);
+        if (start < 0) {
+            return false;
+        }
+        set(occupied, start);
+        return true;
+    }
+
+    public void occupyAll(Collection<LocalTime> times) {
+        for (LocalTime t : times) {
+            occupy(minuteOf(t));
+        }
+    }
+
+    /**
+     * Start minute of the slot containing {@code minute}, or -1.
+     */
+    public int slotStartContaining(int minute) {
+        if (minute < 0 || minute >= MINUTES_PER_DAY) {
+            return -1;
+        }
+        int start = previousSetBit(starts, minute);
+        return start >= 0 && endOf(start) > minute ? start : -1;
+    }
+
+    /**
+     * End minute of the slot starting at {@code startMinute}.
+     */
+    public int endOf(int startMinute) {
+        return nextSetBit(ends, startMinute + 1);
+    }
+
+    public boolean isOccupied(int startMinute) {
+        return get(occupied, startMinute);
+    }
+
+    public boolean isEmpty() {
+        for (long w : starts) {
+            if (w != 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int slotCount() {
+        int count = 0;
+        for (long w : starts) {
+            count += Long.bitCount(w);
+        }
+        return count;
+    }
+
+    public int freeCount() {
+        int count = 0;
+        for (int i = 0; i < WORDS; i++) {
+            count += Long.bitCount(starts[i] & ~occupied[i]);
+        }
+        return count;
+    }
+
+    /**
+     * Number of slots starting at or after {@code fromMinute}.
+     */
+    public int slotCount(int fromMinute) {
+        return countFrom(starts, null, fromMinute);
+    }
+
+    /**
+     * Number of free slots starting at or after {@code fromMinute}.
+     */
+    public int freeCount(int fromMinute) {
+        return countFrom(starts, occupied, fromMinute);
+    }
+
+    /**
+     * Start minute of the first free slot starting at or after
+     * {@code fromMinute}, or -1.
+     */
+    public int firstFree(int fromMinute) {
+        if (fromMinute >= MINUTES_PER_DAY) {
+            return -1;
+        }
+        int i = Math.max(0, fromMinute) >>> 6;
+        long word = (starts[i] & ~occupied[i]) & (-1L << Math.max(0, fromMinute));
+        while (true) {
+            if (word != 0L) {
+                return (i << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++i == WORDS) {
+                return -1;
+            }
+            word = starts[i] & ~occupied[i];
+        }
+    }
+
+    /**
+     * The day's slots ordered by start time; occupied slots are unavailable.
+     */
+    public List<SlotRow> toRows(Long doctorId, LocalDate date) {
+        List<SlotRow> rows = new ArrayList<>(slotCount());
+        for (int m = nextSetBit(starts, 0); m >= 0; m = nextSetBit(starts, m + 1)) {
+            rows.add(new SlotRow(doctorId, date, LocalTime.ofSecondOfDay(m * 60L),
+                    LocalTime.ofSecondOfDay(endOf(m) * 60L), !isOccupied(m)));
+        }
+        return rows;
+    }
+
+    private static int countFrom(long[] words, long[] excluded, int from) {
+        if (from >= MINUTES_PER_DAY) {
+            return 0;
+        }
+        int start = Math.max(0, from);
+        int count = 0;
+        for (int i = start >>> 6; i < WORDS; i++) {
+            long word = excluded == null ? words[i] : words[i] & ~excluded[i];
+            if (i == start >>> 6) {
+                word &= -1L << start;
+            }
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static void set(long[] words, int bit) {
+        words[bit >>> 6] |= 1L << bit;
+    }
+
+    private static void clear(long[] words, int bit) {
+        if (bit >= 0) {
+            words[bit >>> 6] &= ~(1L << bit);
+        }
+    }
+
+    private static boolean get(long[] words, int bit) {
+        return (words[bit >>> 6] & (1L << bit)) != 0L;
+    }
+
+    private static int nextSetBit(long[] words, int from) {
+        int i = from >>> 6;
+        if (i >= WORDS) {
+            return -1;
+        }
+        long word = words[i] & (-1L << from);
+        while (true) {
+            if (word != 0L) {
+                return (i << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++i == WORDS) {
+                return -1;
+            }
+            word = words[i];
+        }
+    }
+
+    private static int previousSetBit(long[] words, int from) {
+        int i = from >>> 6;
+        long word = words[i] & (-1L >>> -(from + 1));
+        while (true) {
+            if (word != 0L) {
+                return (i << 6) + 63 - Long.numberOfLeadingZeros(word);
+            }
+            if (i-- == 0) {
+                return -1;
+            }
+            word = words[i];
+        }
+    }
+}
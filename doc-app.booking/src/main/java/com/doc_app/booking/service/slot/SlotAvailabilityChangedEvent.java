@@ -0,0 +1,39 @@
+package com.doc_app.booking.service.slot;
+
+import com.doc_app.booking.model.SlotStatus;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Published when a doctor's availability changes: a booking, cancellation,
+ * reschedule, leave or template change. An empty {@code dates} set means every
+ * date of the doctor is affected. {@code slotStatuses} carries the new status
+ * of each slot changed by a booking; it is empty for changes that are only
+ * known per day.
+ */
+public record SlotAvailabilityChangedEvent(Long doctorId, Set<LocalDate> dates, String reason,
+        Map<Long, SlotStatus> slotStatuses) {
+
+    public static SlotAvailabilityChangedEvent forDays(Long doctorId, Set<LocalDate> dates, String reason) {
+        return new SlotAvailabilityChangedEvent(doctorId, Set.copyOf(dates), reason, Map.of());
+    }
+
+    public static SlotAvailabilityChangedEvent forDay(Long doctorId, LocalDate date, String reason) {
+        return new SlotAvailabilityChangedEvent(doctorId, Set.of(date), reason, Map.of());
+    }
+
+    public static SlotAvailabilityChangedEvent forDoctor(Long doctorId, String reason) {
+        return new SlotAvailabilityChangedEvent(doctorId, Set.of(), reason, Map.of());
+    }
+
+    public static SlotAvailabilityChangedEvent forSlot(Long doctorId, LocalDate date, Long slotId, SlotStatus status,
+            String reason) {
+        return new SlotAvailabilityChangedEvent(doctorId, Set.of(date), reason, Map.of(slotId, status));
+    }
+
+    public boolean allDates() {
+        return dates.isEmpty();
+    }
+}
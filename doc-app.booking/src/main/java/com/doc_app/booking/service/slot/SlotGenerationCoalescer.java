@@ -0,0 +1,95 @@
+package com.doc_app.booking.service.slot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-flight guard for lazy slot generation on the read path. When several
+ * requests find the same doctor-day without slots, only the first one runs the
+ * generation (in its own write transaction); the others wait for it to finish
+ * and then read the committed rows.
+ * <p>
+ * This only coalesces within one instance. Concurrent generation across
+ * instances is still safe because inserts are idempotent on
+ * (doctor_id, date, start_time).
+ */
+@Component
+@Slf4j
+public class SlotGenerationCoalescer {
+
+    private final TransactionTemplate writeTransaction;
+    private final ConcurrentMap<DoctorDay, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public SlotGenerationCoalescer(PlatformTransactionManager transactionManager) {
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        // never join the caller's (possibly read-only) transaction
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Runs {@code generation} for the doctor-day unless another thread is
+     * already doing so, in which case this call blocks until that run
+     * completes. A failure of the running generation is rethrown to every
+     * waiter.
+     */
+    public void generateOnce(Long doctorId, LocalDate date, Runnable generation) {
+        DoctorDay key = new DoctorDay(doctorId, date);
+        CompletableFuture<Void> mine = new CompletableFuture<>();
+        CompletableFuture<Void> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            log.debug("Waiting for in-flight slot generation of doctor {} on {}", doctorId, date);
+            try {
+                running.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+            return;
+        }
+
+        try {
+            writeTransaction.executeWithoutResult(status -> generation.run());
+            generated.incrementAndGet();
+            mine.complete(null);
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(generated.get(), coalesced.get(), failed.get(), inFlight.size());
+    }
+
+    /**
+     * @param generated generations actually run
+     * @param coalesced requests that waited on another request's generation
+     * @param failed    generations that threw
+     * @param inFlight  doctor-days currently being generated
+     */
+    public record Stats(long generated, long coalesced, long failed, int inFlight) {
+    }
+
+    private record DoctorDay(Long doctorId, LocalDate date) {
+    }
+}
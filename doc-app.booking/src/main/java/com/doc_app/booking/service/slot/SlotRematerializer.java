@@ -0,0 +1,197 @@
+package com.doc_app.booking.service.slot;
+
+import com.doc_app.booking.config.SlotsGeneratorProperties;
+import com.doc_app.booking.model.Appointment;
+import com.doc_app.booking.model.AppointmentStatus;
+import com.doc_app.booking.model.Slot;
+import com.doc_app.booking.model.SlotStatus;
+import com.doc_app.booking.model.SlotTemplate;
+import com.doc_app.booking.repository.AppointmentRepository;
+import com.doc_app.booking.repository.DoctorLeaveRepository;
+import com.doc_app.booking.repository.SlotJdbcRepository;
+import com.doc_app.booking.repository.SlotJdbcRepository.SlotRow;
+import com.doc_app.booking.repository.SlotRepository;
+import com.doc_app.booking.repository.SlotTemplateRepository;
+import com.doc_app.booking.repository.projection.DoctorAppointmentTimeView;
+import com.doc_app.booking.repository.projection.DoctorDateView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Brings a doctor's already materialized future slots in line with the current
+ * slot templates after a template change, touching only the affected weekdays.
+ *
+ * Missing slots are added, unbooked slots that no longer fit are resized or
+ * retired, retired slots that fit again are restored, and booked slots that no
+ * longer fit are reported as conflicts and left untouched.
+ * <p>
+ * Leave days get the same resizing, retiring and restoring, so lifting the
+ * leave reopens the current layout, but their slots stay BLOCKED and missing
+ * ones are not added: generation fills those in once the leave is removed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SlotRematerializer {
+
+    private static final List<AppointmentStatus> BOOKED_STATUSES = List.of(
+            AppointmentStatus.SCHEDULED,
+            AppointmentStatus.COMPLETED,
+            AppointmentStatus.RESERVED);
+
+    private static final List<AppointmentStatus> OCCUPYING_STATUSES = List.of(
+            AppointmentStatus.SCHEDULED,
+            AppointmentStatus.COMPLETED);
+
+    private final SlotTemplateRepository slotTemplateRepository;
+    private final SlotRepository slotRepository;
+    private final SlotJdbcRepository slotJdbcRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorLeaveRepository leaveRepository;
+    private final SlotsGeneratorProperties properties;
+
+    /**
+     * Outcome of a re-materialization: counts of changed slots and the ids of
+     * booked slots that no longer match any template.
+     */
+    public record Result(int added, int resized, int retired, int restored, List<Long> conflictingSlotIds) {
+    }
+
+    @Transactional
+    public Result rematerialize(Long doctorId, Set<DayOfWeek> days) {
+        LocalDate today = LocalDate.now();
+        Map<LocalDate, List<Slot>> existingByDate = slotRepository
+                .findByDoctorIdAndDateGreaterThanEqual(doctorId, today).stream()
+                .filter(s -> days.contains(s.getDate().getDayOfWeek()))
+                .collect(Collectors.groupingBy(Slot::getDate, LinkedHashMap::new, Collectors.toList()));
+
+        TreeSet<LocalDate> dates = new TreeSet<>(existingByDate.keySet());
+        if (!properties.isVirtual()) {
+            // in MATERIALIZED mode the generation horizon gets the new slots too
+            for (int i = 0; i < properties.getDaysAhead(); i++) {
+                LocalDate date = today.plusDays(i);
+                if (days.contains(date.getDayOfWeek())) {
+                    dates.add(date);
+                }
+            }
+        }
+        if (dates.isEmpty()) {
+            return new Result(0, 0, 0, 0, List.of());
+        }
+
+        Map<DayOfWeek, List<SlotTemplate>> templates = new EnumMap<>(DayOfWeek.class);
+        for (DayOfWeek day : days) {
+            templates.put(day, slotTemplateRepository.findByDoctor_IdAndDayOfWeekAndActiveTrue(doctorId, day));
+        }
+        Set<LocalDate> leaveDays = leaveRepository.findActiveLeaveDays(List.of(doctorId), dates.first(), dates.last())
+                .stream().map(DoctorDateView::getDate).collect(Collectors.toSet());
+        Map<LocalDate, List<LocalTime>> occupied = new HashMap<>();
+        for (DoctorAppointmentTimeView a : appointmentRepository.findAppointmentTimes(List.of(doctorId),
+                dates.first().atStartOfDay(), dates.last().atTime(LocalTime.MAX), OCCUPYING_STATUSES)) {
+            occupied.computeIfAbsent(a.getAppointmentDateTime().toLocalDate(), k -> new ArrayList<>())
+                    .add(a.getAppointmentDateTime().toLocalTime());
+        }
+
+        List<Long> existingIds = existingByDate.values().stream().flatMap(List::stream).map(Slot::getId)
+                .collect(Collectors.toList());
+        Set<Long> bookedSlotIds = new HashSet<>();
+        Set<Long> referencedSlotIds = new HashSet<>();
+        if (!existingIds.isEmpty()) {
+            for (Appointment a : appointmentRepository.findBySlot_IdIn(existingIds)) {
+                referencedSlotIds.add(a.getSlot().getId());
+                if (BOOKED_STATUSES.contains(a.getStatus())) {
+                    bookedSlotIds.add(a.getSlot().getId());
+                }
+            }
+        }
+
+        List<SlotRow> toInsert = new ArrayList<>();
+        List<Long> toDelete = new ArrayList<>();
+        List<Long> toRetire = new ArrayList<>();
+        List<Long> conflicts = new ArrayList<>();
+        int resized = 0;
+        int restored = 0;
+        for (LocalDate date : dates) {
+            boolean onLeave = leaveDays.contains(date);
+            Map<LocalTime, SlotRow> desired = new HashMap<>();
+            DaySchedule schedule = DaySchedule.of(templates.getOrDefault(date.getDayOfWeek(), List.of()));
+            schedule.occupyAll(occupied.getOrDefault(date, List.of()));
+            for (SlotRow row : schedule.toRows(doctorId, date)) {
+                desired.put(row.startTime(), row);
+            }
+            for (Slot slot : existingByDate.getOrDefault(date, List.of())) {
+                SlotRow wanted = desired.remove(slot.getStartTime());
+                boolean booked = bookedSlotIds.contains(slot.getId());
+                if (wanted != null && !booked && restore(slot, onLeave)) {
+                    restored++;
+                }
+                if (wanted != null && wanted.endTime().equals(slot.getEndTime())) {
+                    continue;
+                }
+                if (booked) {
+                    conflicts.add(slot.getId());
+                } else if (wanted != null) {
+                    slot.setEndTime(wanted.endTime());
+                    resized++;
+                } else if (referencedSlotIds.contains(slot.getId())) {
+                    // still referenced by cancelled appointments, so keep the row but close it
+                    toRetire.add(slot.getId());
+                } else {
+                    toDelete.add(slot.getId());
+                }
+            }
+            if (!properties.isVirtual() && !onLeave) {
+                toInsert.addAll(desired.values());
+            }
+        }
+
+        if (!toDelete.isEmpty()) {
+            slotRepository.deleteAllByIdInBatch(toDelete);
+        }
+        if (!toRetire.isEmpty()) {
+            slotRepository.retire(toRetire);
+        }
+        slotRepository.flush();
+        int added = slotJdbcRepository.insertIfAbsent(toInsert, properties.getBatchSize()).size();
+
+        if (!conflicts.isEmpty()) {
+            log.warn("Slot template change for doctor {} conflicts with booked slots {}", doctorId, conflicts);
+        }
+        Result result = new Result(added, resized, toDelete.size() + toRetire.size(), restored, conflicts);
+        log.info("Re-materialized slots for doctor {} on {}: {}", doctorId, days, result);
+        return result;
+    }
+
+    /**
+     * Puts an unbooked slot that fits a template again back on offer: it is no
+     * longer retired, and a BLOCKED slot outside a leave day becomes AVAILABLE.
+     * On a leave day it stays BLOCKED until the leave is removed.
+     *
+     * @return whether the slot changed
+     */
+    private static boolean restore(Slot slot, boolean onLeave) {
+        boolean changed = slot.isRetired();
+        slot.setRetired(false);
+        if (!onLeave && slot.getStatus() == SlotStatus.BLOCKED) {
+            slot.setStatus(SlotStatus.AVAILABLE);
+            changed = true;
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,68 @@
+package com.doc_app.booking.service.slot;
+
+import com.doc_app.booking.repository.SlotJdbcRepository;
+import com.doc_app.booking.service.scheduler.SlotStatusReconciler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Applies the data steps of the slot migrations at startup. Flyway is disabled
+ * and the schema is kept by Hibernate's ddl-auto=update, which adds columns and
+ * constraints but never runs the migration scripts, so their repairs happen
+ * here instead. Runs once all beans exist and before the web server accepts
+ * requests.
+ * <p>
+ * The (doctor_id, date, start_time) unique key is required by every slot
+ * upsert. When it is missing, duplicate rows are removed as in
+ * V4__add_unique_slot_key.sql and the key is created; startup fails if a key
+ * is booked more than once, since those appointments have to be moved by hand.
+ * <p>
+ * The slot status column is added by Hibernate with every row AVAILABLE, so
+ * the backfill of V7__add_slot_status.sql is replaced by one
+ * {@link SlotStatusReconciler} run. Booking only looks at the status, so
+ * without it slots booked before the column existed could be booked again
+ * until the reconciler's first scheduled run.
+ */
+@Component
+@Slf4j
+public class SlotStartupCheck implements SmartInitializingSingleton {
+
+    private static final int MAX_REPORTED_KEYS = 20;
+
+    private final SlotJdbcRepository slotJdbcRepository;
+    private final SlotStatusReconciler statusReconciler;
+    private final TransactionTemplate transaction;
+
+    public SlotStartupCheck(SlotJdbcRepository slotJdbcRepository, SlotStatusReconciler statusReconciler,
+            PlatformTransactionManager transactionManager) {
+        this.slotJdbcRepository = slotJdbcRepository;
+        this.statusReconciler = statusReconciler;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        ensureUniqueSlotKey();
+        int fixed = statusReconciler.reconcile();
+        log.info("Slot statuses checked at startup, {} fixed", fixed);
+    }
+
+    private void ensureUniqueSlotKey() {
+        if (slotJdbcRepository.hasUniqueSlotKey()) {
+            return;
+        }
+        log.warn("slots has no unique (doctor_id, date, start_time) key, removing duplicates and creating it");
+        List<String> booked = transaction.execute(status -> slotJdbcRepository.createUniqueSlotKey());
+        if (!booked.isEmpty()) {
+            throw new IllegalStateException("Cannot create uk_slots_doctor_date_start: " + booked.size()
+                    + " slots are booked more than once; move their appointments to one row and restart. First: "
+                    + booked.subList(0, Math.min(MAX_REPORTED_KEYS, booked.size())));
+        }
+        log.info("Created uk_slots_doctor_date_start");
+    }
+}
@@ -0,0 +1,50 @@
+package com.doc_app.booking.service.slot;
+
+import com.doc_app.booking.model.SlotTemplate;
+import com.doc_app.booking.repository.DoctorLeaveRepository;
+import com.doc_app.booking.repository.SlotJdbcRepository.SlotRow;
+import com.doc_app.booking.repository.SlotTemplateRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Computes a doctor's slots for a day straight from the active slot templates,
+ * without reading or writing the slots table. Used by the VIRTUAL availability
+ * mode.
+ */
+@Component
+@RequiredArgsConstructor
+public class VirtualSlotCalculator {
+
+    private final SlotTemplateRepository slotTemplateRepository;
+    private final DoctorLeaveRepository leaveRepository;
+
+    /**
+     * Returns the day's template schedule with leave already subtracted. The
+     * schedule is empty when the doctor has no active template for that weekday
+     * or is on leave.
+     */
+    public DaySchedule computeSchedule(Long doctorId, LocalDate date) {
+        List<SlotTemplate> templates = slotTemplateRepository.findByDoctor_IdAndDayOfWeekAndActiveTrue(doctorId,
+                date.getDayOfWeek());
+        DaySchedule schedule = DaySchedule.of(templates);
+        if (!schedule.isEmpty() && leaveRepository.existsByDoctor_IdAndDateAndActiveTrue(doctorId, date)) {
+            schedule.clear();
+        }
+        return schedule;
+    }
+
+    /**
+     * Returns the day's slots ordered by start time, or an empty list when the
+     * doctor has no active template for that weekday or is on leave.
+     */
+    public List<SlotRow> computeDay(Long doctorId, LocalDate date, List<LocalTime> occupied) {
+        DaySchedule schedule = computeSchedule(doctorId, date);
+        schedule.occupyAll(occupied);
+        return schedule.toRows(doctorId, date);
+    }
+}
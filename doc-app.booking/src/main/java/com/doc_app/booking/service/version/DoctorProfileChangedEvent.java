@@ -0,0 +1,7 @@
+package com.doc_app.booking.service.version;
+
+/**
+ * Published when a doctor's profile is updated or the doctor is deleted.
+ */
+public record DoctorProfileChangedEvent(Long doctorId) {
+}
@@ -0,0 +1,125 @@
+package com.doc_app.booking.service.version;
+
+import com.doc_app.booking.config.AvailabilityCacheProperties;
+import com.doc_app.booking.service.slot.SlotAvailabilityChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counters behind the strong ETags of slot and doctor reads, kept per
+ * doctor-day (slot lists), per doctor (doctor-wide availability: summaries,
+ * history, templates) and per doctor profile.
+ * <p>
+ * A change drops the affected counters; the next read assigns a fresh value
+ * from one sequence, so a version is never reused. ETags carry a random
+ * per-instance epoch, so a restart or another instance never produces a match
+ * for data it did not serve. Counters also expire after slots.cache.ttl-seconds,
+ * which bounds how long a change made on another instance can be answered
+ * with 304, the same staleness the availability cache allows.
+ */
+@Component
+@Slf4j
+public class ResourceVersions {
+
+    private final AvailabilityCacheProperties properties;
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentMap<Key, Version> versions = new ConcurrentHashMap<>();
+
+    public ResourceVersions(AvailabilityCacheProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * ETag of a doctor's slot list for {@code date}, or of the doctor's
+     * upcoming slots when {@code date} is null. Lists that drop ended slots
+     * (today, upcoming) also change every minute.
+     */
+    public String slotsETag(Long doctorId, LocalDate date) {
+        LocalDateTime now = LocalDateTime.now();
+        if (date == null) {
+            return etag(version(new Key(Kind.AVAILABILITY, doctorId, null)), minuteOf(now));
+        }
+        long version = version(new Key(Kind.DAY, doctorId, date));
+        return date.equals(now.toLocalDate()) ? etag(version, minuteOf(now)) : etag(version);
+    }
+
+    /**
+     * ETag of a doctor-wide availability read; {@code timeDependent} reads
+     * (e.g. summaries that skip ended slots) also change every minute.
+     */
+    public String availabilityETag(Long doctorId, boolean timeDependent) {
+        long version = version(new Key(Kind.AVAILABILITY, doctorId, null));
+        return timeDependent ? etag(version, minuteOf(LocalDateTime.now())) : etag(version);
+    }
+
+    public String profileETag(Long doctorId) {
+        return etag(version(new Key(Kind.PROFILE, doctorId, null)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(SlotAvailabilityChangedEvent event) {
+        versions.remove(new Key(Kind.AVAILABILITY, event.doctorId(), null));
+        if (event.allDates()) {
+            versions.keySet().removeIf(key -> key.kind() == Kind.DAY && key.doctorId().equals(event.doctorId()));
+            return;
+        }
+        for (LocalDate date : event.dates()) {
+            versions.remove(new Key(Kind.DAY, event.doctorId(), date));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDoctorProfileChanged(DoctorProfileChangedEvent event) {
+        versions.remove(new Key(Kind.PROFILE, event.doctorId(), null));
+    }
+
+    @Scheduled(fixedRate = 300000) // Run every 5 minutes
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        int before = versions.size();
+        versions.values().removeIf(v -> v.expiresAt() - now <= 0);
+        log.debug("Purged {} expired resource versions", before - versions.size());
+    }
+
+    private long version(Key key) {
+        long now = System.nanoTime();
+        return versions.compute(key, (k, v) -> v != null && v.expiresAt() - now > 0 ? v
+                : new Version(sequence.incrementAndGet(),
+                        now + TimeUnit.SECONDS.toNanos(properties.getTtlSeconds()))).value();
+    }
+
+    private String etag(long... parts) {
+        StringBuilder etag = new StringBuilder("\"").append(epoch);
+        for (long part : parts) {
+            etag.append('-').append(Long.toString(part, 36));
+        }
+        return etag.append('"').toString();
+    }
+
+    private static long minuteOf(LocalDateTime now) {
+        return now.toLocalDate().toEpochDay() * 1440 + now.getHour() * 60L + now.getMinute();
+    }
+
+    private enum Kind {
+        DAY,
+        AVAILABILITY,
+        PROFILE
+    }
+
+    private record Key(Kind kind, Long doctorId, LocalDate date) {
+    }
+
+    private record Version(long value, long expiresAt) {
+    }
+}
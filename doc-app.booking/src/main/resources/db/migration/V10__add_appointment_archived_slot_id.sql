@@ -0,0 +1,7 @@
+-- Archiving a slot moves the appointment's link to archived_slot_id, which points into slot_archive
+-- (no foreign key: archived rows are only ever read, never deleted by the application)
+
+ALTER TABLE appointments ADD COLUMN IF NOT EXISTS archived_slot_id BIGINT;
+
+CREATE INDEX IF NOT EXISTS idx_appointments_archived_slot_id ON appointments (archived_slot_id)
+    WHERE archived_slot_id IS NOT NULL;
@@ -0,0 +1,3 @@
+-- Slots retired by a template change stay BLOCKED when a leave on their day is removed
+
+ALTER TABLE slots ADD COLUMN IF NOT EXISTS retired BOOLEAN NOT NULL DEFAULT FALSE;
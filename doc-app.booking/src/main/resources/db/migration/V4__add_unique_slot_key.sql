@@ -0,0 +1,36 @@
+-- Enforce one slot per doctor, date and start time so generation can upsert
+
+-- Drop unbooked duplicates of a key that has a booked row, whichever row is older
+DELETE FROM slots s
+WHERE NOT EXISTS (SELECT 1 FROM appointments a WHERE a.slot_id = s.id)
+  AND EXISTS (SELECT 1 FROM slots d
+              WHERE d.doctor_id = s.doctor_id
+                AND d.date = s.date
+                AND d.start_time = s.start_time
+                AND d.id <> s.id
+                AND EXISTS (SELECT 1 FROM appointments a WHERE a.slot_id = d.id));
+
+-- Keys without a booked row keep their oldest row
+DELETE FROM slots s
+USING slots d
+WHERE s.doctor_id = d.doctor_id
+  AND s.date = d.date
+  AND s.start_time = d.start_time
+  AND s.id > d.id
+  AND NOT EXISTS (SELECT 1 FROM appointments a WHERE a.slot_id = s.id)
+  AND NOT EXISTS (SELECT 1 FROM appointments a WHERE a.slot_id = d.id);
+
+-- Only keys booked more than once are left; their appointments have to be moved by hand
+DO $$
+DECLARE
+    dup RECORD;
+BEGIN
+    SELECT doctor_id, date, start_time INTO dup FROM slots
+    GROUP BY doctor_id, date, start_time HAVING COUNT(*) > 1 LIMIT 1;
+    IF FOUND THEN
+        RAISE EXCEPTION 'Slot % % % is booked more than once; move its appointments to one row and rerun',
+            dup.doctor_id, dup.date, dup.start_time;
+    END IF;
+END $$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_slots_doctor_date_start ON slots (doctor_id, date, start_time);
@@ -0,0 +1,6 @@
+-- Per-doctor "generated through" date for the nightly slot generator
+
+CREATE TABLE IF NOT EXISTS slot_generation_watermarks (
+    doctor_id BIGINT PRIMARY KEY REFERENCES doctors(id) ON DELETE CASCADE,
+    generated_through DATE NOT NULL
+);
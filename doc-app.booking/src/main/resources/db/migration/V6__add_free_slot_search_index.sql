@@ -0,0 +1,5 @@
+-- Earliest-free-slot search scans free slots by day and start time across doctors
+
+CREATE INDEX IF NOT EXISTS idx_slots_free_date_start ON slots (date, start_time, doctor_id) WHERE available = TRUE;
+
+CREATE INDEX IF NOT EXISTS idx_doctors_specialization ON doctors (LOWER(specialization));
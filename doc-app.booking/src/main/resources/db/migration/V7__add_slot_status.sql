@@ -0,0 +1,16 @@
+-- Authoritative booking status per slot, maintained on write by the appointment service
+
+ALTER TABLE slots ADD COLUMN IF NOT EXISTS status VARCHAR(16) NOT NULL DEFAULT 'AVAILABLE';
+
+UPDATE slots s SET status = 'BOOKED'
+WHERE EXISTS (SELECT 1 FROM appointments a WHERE a.slot_id = s.id AND a.status IN ('SCHEDULED', 'COMPLETED'));
+
+UPDATE slots s SET status = 'HELD'
+WHERE s.status = 'AVAILABLE'
+  AND EXISTS (SELECT 1 FROM appointments a WHERE a.slot_id = s.id AND a.status = 'RESERVED');
+
+-- unbooked slots that are switched off (leave days, retired template slots)
+UPDATE slots s SET status = 'BLOCKED'
+WHERE s.status = 'AVAILABLE' AND s.available = FALSE;
+
+UPDATE slots SET available = (status = 'AVAILABLE');
@@ -0,0 +1,13 @@
+-- Past slots are moved here by the nightly archiver so the slots table only holds the booking horizon
+
+CREATE TABLE IF NOT EXISTS slot_archive (
+    id BIGINT PRIMARY KEY,
+    doctor_id BIGINT NOT NULL,
+    date DATE NOT NULL,
+    start_time TIME NOT NULL,
+    end_time TIME NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    archived_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_slot_archive_doctor_date_start ON slot_archive (doctor_id, date, start_time);
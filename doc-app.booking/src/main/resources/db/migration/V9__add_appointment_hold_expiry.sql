@@ -0,0 +1,7 @@
+-- Time-limited slot holds: a RESERVED appointment with an expiry, released by the hold sweeper.
+-- Only live holds carry hold_expires_at, so the index stays as small as the set of open holds.
+
+ALTER TABLE appointments ADD COLUMN IF NOT EXISTS hold_expires_at TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_appointments_hold_expires_at ON appointments (hold_expires_at)
+    WHERE hold_expires_at IS NOT NULL;
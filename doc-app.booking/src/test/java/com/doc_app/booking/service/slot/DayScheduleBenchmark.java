@@ -0,0 +1,140 @@
+package com.doc_app.booking.service.slot;
+
+import com.doc_app.booking.model.SlotTemplate;
+import com.doc_app.booking.repository.SlotJdbcRepository.SlotRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of {@link DaySchedule} against the per-minute {@code LocalTime}
+ * expansion it replaced (template expansion with a scan of every booked time
+ * for every slot). Each operation computes one doctor-day: the templates are
+ * expanded, the booked times overlaid and the day is either written out as
+ * {@link SlotRow}s or only counted.
+ * <p>
+ * Lives in the test sources so neither JMH nor the benchmark ends up in the
+ * application jar. After {@code mvn test-compile}, run {@link #main} from the
+ * IDE or with the test classpath; add {@code -prof gc} through the JMH command
+ * line for allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DayScheduleBenchmark {
+
+    private static final Long DOCTOR_ID = 1L;
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 7);
+
+    @Param({"10", "30"})
+    int slotMinutes;
+
+    @Param({"50"})
+    int bookedPercent;
+
+    private List<SlotTemplate> templates;
+    private List<LocalTime> booked;
+
+    @Setup
+    public void setUp() {
+        templates = List.of(
+                template(LocalTime.of(9, 0), LocalTime.of(13, 0), slotMinutes),
+                template(LocalTime.of(14, 0), LocalTime.of(18, 0), slotMinutes));
+        Random random = new Random(42);
+        booked = new ArrayList<>();
+        for (SlotRow row : legacyRows(templates, List.of())) {
+            if (random.nextInt(100) < bookedPercent) {
+                booked.add(row.startTime());
+            }
+        }
+    }
+
+    @Benchmark
+    public List<SlotRow> rowsLegacy() {
+        return legacyRows(templates, booked);
+    }
+
+    @Benchmark
+    public List<SlotRow> rowsBitmap() {
+        DaySchedule schedule = DaySchedule.of(templates);
+        schedule.occupyAll(booked);
+        return schedule.toRows(DOCTOR_ID, DATE);
+    }
+
+    @Benchmark
+    public int freeCountLegacy() {
+        int free = 0;
+        for (SlotRow row : legacyRows(templates, booked)) {
+            if (row.available()) {
+                free++;
+            }
+        }
+        return free;
+    }
+
+    @Benchmark
+    public int freeCountBitmap() {
+        DaySchedule schedule = DaySchedule.of(templates);
+        schedule.occupyAll(booked);
+        return schedule.freeCount();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DayScheduleBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    // the expansion DaySchedule replaced: one LocalTime pair per slot, every booked time checked per slot
+    private static List<SlotRow> legacyRows(List<SlotTemplate> templates, List<LocalTime> booked) {
+        List<SlotRow> rows = new ArrayList<>();
+        for (SlotTemplate template : templates) {
+            int duration = template.getSlotDurationMinutes();
+            int end = template.getEndTime().toSecondOfDay() / 60;
+            for (int m = template.getStartTime().toSecondOfDay() / 60; m + duration <= end; m += duration) {
+                LocalTime start = LocalTime.ofSecondOfDay(m * 60L);
+                LocalTime slotEnd = LocalTime.ofSecondOfDay((m + duration) * 60L);
+                boolean available = true;
+                for (LocalTime t : booked) {
+                    if (!t.isBefore(start) && t.isBefore(slotEnd)) {
+                        available = false;
+                        break;
+                    }
+                }
+                rows.add(new SlotRow(DOCTOR_ID, DATE, start, slotEnd, available));
+            }
+        }
+        return rows;
+    }
+
+    private static SlotTemplate template(LocalTime start, LocalTime end, int slotMinutes) {
+        SlotTemplate template = new SlotTemplate();
+        template.setDayOfWeek(DayOfWeek.MONDAY);
+        template.setStartTime(start);
+        template.setEndTime(end);
+        template.setSlotDurationMinutes(slotMinutes);
+        return template;
+    }
+}
@@ -0,0 +1,234 @@
+package com.doc_app.booking.service.slot;
+
+import com.doc_app.booking.model.SlotTemplate;
+import com.doc_app.booking.repository.SlotJdbcRepository.SlotRow;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DayScheduleTest {
+
+    private static final int LAST_MINUTE = DaySchedule.MINUTES_PER_DAY - 1;
+
+    @Test
+    void addWindowDropsTrailingRemainder() {
+        DaySchedule schedule = new DaySchedule().addWindow(540, 610, 20);
+
+        assertEquals(3, schedule.slotCount());
+        assertEquals(560, schedule.endOf(540));
+        assertEquals(600, schedule.endOf(580));
+        assertEquals(-1, schedule.slotStartContaining(600));
+    }
+
+    @Test
+    void addWindowIgnoresNonPositiveDuration() {
+        assertTrue(new DaySchedule().addWindow(0, 60, 0).isEmpty());
+        assertTrue(new DaySchedule().addWindow(0, 60, -5).isEmpty());
+    }
+
+    @Test
+    void ofExpandsEveryTemplate() {
+        DaySchedule schedule = DaySchedule.of(List.of(
+                template(LocalTime.of(9, 0), LocalTime.of(10, 0), 30),
+                template(LocalTime.of(14, 0), LocalTime.of(15, 0), 15)));
+
+        assertEquals(6, schedule.slotCount());
+        assertEquals(570, schedule.slotStartContaining(575));
+        assertEquals(855, schedule.slotStartContaining(869));
+        assertEquals(-1, schedule.slotStartContaining(700));
+    }
+
+    @Test
+    void wholeDayCoversFirstAndLastMinute() {
+        DaySchedule schedule = new DaySchedule().addWindow(0, DaySchedule.MINUTES_PER_DAY, 60);
+
+        assertEquals(24, schedule.slotCount());
+        assertEquals(0, schedule.slotStartContaining(0));
+        assertEquals(1380, schedule.slotStartContaining(LAST_MINUTE));
+        assertEquals(DaySchedule.MINUTES_PER_DAY, schedule.endOf(1380));
+        assertEquals(-1, schedule.slotStartContaining(DaySchedule.MINUTES_PER_DAY));
+        assertEquals(-1, schedule.slotStartContaining(-1));
+    }
+
+    @Test
+    void oneMinuteSlotsAtTheEdgesOfTheDay() {
+        DaySchedule schedule = new DaySchedule()
+                .addWindow(0, 1, 1)
+                .addWindow(LAST_MINUTE, DaySchedule.MINUTES_PER_DAY, 1);
+
+        assertEquals(2, schedule.slotCount());
+        assertEquals(0, schedule.slotStartContaining(0));
+        assertEquals(-1, schedule.slotStartContaining(1));
+        assertEquals(LAST_MINUTE, schedule.slotStartContaining(LAST_MINUTE));
+        assertEquals(0, schedule.firstFree(0));
+        assertEquals(LAST_MINUTE, schedule.firstFree(1));
+        assertEquals(1, schedule.freeCount(LAST_MINUTE));
+    }
+
+    @Test
+    void lookupsCrossWordBoundaries() {
+        // slots on both sides of the 64 and 128 minute word boundaries
+        DaySchedule schedule = new DaySchedule()
+                .addWindow(62, 66, 2)
+                .addWindow(126, 130, 2);
+
+        assertEquals(62, schedule.slotStartContaining(63));
+        assertEquals(64, schedule.slotStartContaining(64));
+        assertEquals(64, schedule.slotStartContaining(65));
+        assertEquals(-1, schedule.slotStartContaining(66));
+        assertEquals(-1, schedule.slotStartContaining(100));
+        assertEquals(126, schedule.slotStartContaining(127));
+        assertEquals(128, schedule.slotStartContaining(129));
+        assertEquals(64, schedule.endOf(62));
+        assertEquals(66, schedule.endOf(64));
+        assertEquals(128, schedule.endOf(126));
+    }
+
+    @Test
+    void endOfFindsEndInALaterWord() {
+        DaySchedule schedule = new DaySchedule().addWindow(10, 200, 190);
+
+        assertEquals(200, schedule.endOf(10));
+        assertEquals(10, schedule.slotStartContaining(199));
+        assertEquals(-1, schedule.slotStartContaining(200));
+    }
+
+    @Test
+    void firstFreeSkipsOccupiedSlotsAcrossWords() {
+        DaySchedule schedule = new DaySchedule().addWindow(0, 300, 30);
+        for (int m = 0; m < 180; m += 30) {
+            assertTrue(schedule.occupy(m + 5));
+        }
+
+        assertEquals(180, schedule.firstFree(0));
+        assertEquals(180, schedule.firstFree(64));
+        assertEquals(210, schedule.firstFree(181));
+        assertEquals(-1, schedule.firstFree(271));
+        assertEquals(-1, schedule.firstFree(DaySchedule.MINUTES_PER_DAY));
+        assertEquals(180, schedule.firstFree(-10));
+    }
+
+    @Test
+    void countsFromAMinute() {
+        DaySchedule schedule = new DaySchedule().addWindow(0, 300, 30);
+        schedule.occupy(60);
+        schedule.occupy(150);
+
+        assertEquals(10, schedule.slotCount());
+        assertEquals(8, schedule.freeCount());
+        assertEquals(10, schedule.slotCount(0));
+        assertEquals(8, schedule.slotCount(60));
+        assertEquals(7, schedule.slotCount(64));
+        assertEquals(6, schedule.freeCount(64));
+        assertEquals(1, schedule.slotCount(270));
+        assertEquals(0, schedule.slotCount(271));
+        assertEquals(0, schedule.freeCount(DaySchedule.MINUTES_PER_DAY));
+        assertEquals(10, schedule.slotCount(-1));
+    }
+
+    @Test
+    void occupyMarksTheContainingSlotOnly() {
+        DaySchedule schedule = new DaySchedule().addWindow(540, 600, 20).addWindow(620, 640, 20);
+
+        assertTrue(schedule.occupy(565));
+        assertTrue(schedule.isOccupied(560));
+        assertFalse(schedule.isOccupied(540));
+        assertFalse(schedule.occupy(605));
+        assertFalse(schedule.occupy(-1));
+        assertFalse(schedule.occupy(DaySchedule.MINUTES_PER_DAY));
+        assertEquals(3, schedule.freeCount());
+    }
+
+    @Test
+    void subtractRemovesSlotsStartingInRange() {
+        DaySchedule schedule = new DaySchedule().addWindow(0, 240, 30);
+        schedule.occupy(70);
+
+        // 60 and 90 start inside [50, 120); 30 overlaps the range but starts before it
+        schedule.subtract(50, 120);
+
+        assertEquals(6, schedule.slotCount());
+        assertEquals(30, schedule.slotStartContaining(59));
+        assertEquals(-1, schedule.slotStartContaining(70));
+        assertEquals(-1, schedule.slotStartContaining(119));
+        assertEquals(120, schedule.slotStartContaining(120));
+        assertEquals(60, schedule.endOf(30));
+        assertFalse(schedule.isOccupied(60));
+        assertEquals(6, schedule.freeCount());
+    }
+
+    @Test
+    void subtractKeepsTheEndOfAnAdjacentSlot() {
+        DaySchedule schedule = new DaySchedule().addWindow(0, 128, 64);
+
+        schedule.subtract(64, 128);
+
+        assertEquals(1, schedule.slotCount());
+        assertEquals(64, schedule.endOf(0));
+        assertEquals(0, schedule.slotStartContaining(63));
+        assertEquals(-1, schedule.slotStartContaining(64));
+    }
+
+    @Test
+    void clearRemovesEverything() {
+        DaySchedule schedule = new DaySchedule().addWindow(0, 600, 10);
+        schedule.occupy(5);
+
+        schedule.clear();
+
+        assertTrue(schedule.isEmpty());
+        assertEquals(0, schedule.slotCount());
+        assertEquals(-1, schedule.firstFree(0));
+    }
+
+    @Test
+    void addSlotKeepsStoredStatus() {
+        DaySchedule schedule = new DaySchedule()
+                .addSlot(540, 560, false)
+                .addSlot(560, 580, true)
+                .addSlot(600, 630, false);
+
+        assertEquals(3, schedule.slotCount());
+        assertEquals(2, schedule.freeCount());
+        assertTrue(schedule.isOccupied(560));
+        assertEquals(600, schedule.firstFree(541));
+        assertEquals(630, schedule.endOf(600));
+    }
+
+    @Test
+    void toRowsListsSlotsInStartOrder() {
+        LocalDate date = LocalDate.of(2030, 1, 7);
+        DaySchedule schedule = new DaySchedule().addWindow(600, 660, 30).addWindow(0, 30, 30);
+        schedule.occupy(615);
+
+        List<SlotRow> rows = schedule.toRows(7L, date);
+
+        assertEquals(List.of(
+                new SlotRow(7L, date, LocalTime.MIDNIGHT, LocalTime.of(0, 30), true),
+                new SlotRow(7L, date, LocalTime.of(10, 0), LocalTime.of(10, 30), false),
+                new SlotRow(7L, date, LocalTime.of(10, 30), LocalTime.of(11, 0), true)), rows);
+    }
+
+    @Test
+    void minuteOfIgnoresSeconds() {
+        assertEquals(0, DaySchedule.minuteOf(LocalTime.MIDNIGHT));
+        assertEquals(LAST_MINUTE, DaySchedule.minuteOf(LocalTime.MAX));
+        assertEquals(570, DaySchedule.minuteOf(LocalTime.of(9, 30, 59)));
+    }
+
+    private static SlotTemplate template(LocalTime start, LocalTime end, int duration) {
+        SlotTemplate template = new SlotTemplate();
+        template.setDayOfWeek(DayOfWeek.MONDAY);
+        template.setStartTime(start);
+        template.setEndTime(end);
+        template.setSlotDurationMinutes(duration);
+        return template;
+    }
+}